@@ -0,0 +1,105 @@
+package com.havranek.todolist.benchmark;
+
+import com.havranek.todolist.mapper.TaskMapperImpl;
+import com.havranek.todolist.model.dto.ImportReport;
+import com.havranek.todolist.repository.DbInMemory;
+import com.havranek.todolist.service.CsvTaskImporterImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second of the CSV import, serial path (workers = 1) against the worker pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvImportBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"1", "2", "4", "8"})
+    private int workers;
+
+    private byte[] newTasksCsv;
+    private DbInMemory repository;
+    private ValidatorFactory validatorFactory;
+    private CsvTaskImporterImpl importer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        newTasksCsv = CsvFixtures.newTasksCsv(rows, LocalDate.now().plusYears(1));
+        repository = new DbInMemory();
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        importer = new CsvTaskImporterImpl(repository, new TaskMapperImpl(), validatorFactory.getValidator(), new SimpleMeterRegistry(),
+                1000, 100, workers);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearRepository() {
+        repository.clearDb();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        importer.shutdown();
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public ImportReport importNew(RowCounter counter) {
+        ImportReport report = importer.importNew(new ByteArrayInputStream(newTasksCsv));
+        counter.rows += report.processedRows();
+        return report;
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class RowCounter {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+
+    static final class CsvFixtures {
+
+        private CsvFixtures() {
+        }
+
+        static byte[] newTasksCsv(int rows, LocalDate deadline) {
+            StringBuilder csv = new StringBuilder("title,deadline,description\n");
+            for (int i = 0; i < rows; i++) {
+                csv.append("Task ").append(i).append(',')
+                        .append(deadline).append(',')
+                        .append("Imported benchmark task number ").append(i).append('\n');
+            }
+            return csv.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
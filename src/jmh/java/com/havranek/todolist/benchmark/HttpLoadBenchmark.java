@@ -0,0 +1,143 @@
+package com.havranek.todolist.benchmark;
+
+import com.havranek.todolist.TodolistApplication;
+import com.havranek.todolist.model.entity.Task;
+import com.havranek.todolist.repository.Repository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of the running application over HTTP, Tomcat on its platform thread pool against
+ * {@code spring.threads.virtual.enabled=true}. Both modes get the same heap and the same number of
+ * clients, more than Tomcat's 200 request threads. Sample time mode reports the latency percentiles
+ * (p99 included), throughput mode the requests per second.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="HttpLoadBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Threads(HttpLoadBenchmark.CLIENTS)
+public class HttpLoadBenchmark {
+
+    static final int CLIENTS = 256;
+    private static final int TASKS = 100_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int CSV_ROWS = 200;
+    private static final String BOUNDARY = "todolist-benchmark-boundary";
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private byte[] csvUpload;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // command line arguments, plain properties would lose to application.properties
+        context = new SpringApplicationBuilder(TodolistApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--spring.threads.virtual.enabled=" + threads.equals("virtual"),
+                        "--todolist.persistence.enabled=false",
+                        "--todolist.import.jobs.queue-capacity=1000000",
+                        "--todolist.import.jobs.retention-minutes=1");
+        Repository repository = context.getBean(Repository.class);
+        repository.clearDb();
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            batch.add(TaskFixtures.task(-1, i));
+        }
+        repository.saveAll(batch);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/task";
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        csvUpload = multipart(CsvImportBenchmark.CsvFixtures.newTasksCsv(CSV_ROWS, LocalDate.now().plusYears(1)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public String getOne() throws Exception {
+        long id = ThreadLocalRandom.current().nextLong(TASKS) + 1;
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).GET());
+    }
+
+    @Benchmark
+    public String getPage() throws Exception {
+        int page = ThreadLocalRandom.current().nextInt(TASKS / PAGE_SIZE);
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/all?page=" + page + "&size=" + PAGE_SIZE)).GET());
+    }
+
+    /** The request thread reads the whole multipart upload before the job is queued. */
+    @Benchmark
+    public String uploadCsv() throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/csv/new"))
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(csvUpload)));
+    }
+
+    private String send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("HTTP " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static byte[] multipart(byte[] csv) {
+        String head = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"tasks.csv\"\r\n"
+                + "Content-Type: text/csv\r\n\r\n";
+        String tail = "\r\n--" + BOUNDARY + "--\r\n";
+        byte[] headBytes = head.getBytes(StandardCharsets.UTF_8);
+        byte[] tailBytes = tail.getBytes(StandardCharsets.UTF_8);
+        byte[] body = new byte[headBytes.length + csv.length + tailBytes.length];
+        System.arraycopy(headBytes, 0, body, 0, headBytes.length);
+        System.arraycopy(csv, 0, body, headBytes.length, csv.length);
+        System.arraycopy(tailBytes, 0, body, headBytes.length + csv.length, tailBytes.length);
+        return body;
+    }
+}
@@ -0,0 +1,84 @@
+package com.havranek.todolist.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.havranek.todolist.mapper.TaskMapperImpl;
+import com.havranek.todolist.model.dto.TaskAllDTO;
+import com.havranek.todolist.model.dto.TaskPageListing;
+import com.havranek.todolist.model.entity.Task;
+import com.havranek.todolist.service.TaskListingWriterImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@code GET /api/task/all} page from stored tasks to JSON bytes: the DTO path (map every task to
+ * {@link TaskAllDTO}, wrap in {@link PageImpl}, serialize with Jackson) against {@link TaskListingWriterImpl}.
+ * Run with {@code -prof gc}, {@code gc.alloc.rate.norm} is the garbage per request.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ListingBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListingBenchmark {
+
+    @Param({"20", "1000"})
+    private int pageSize;
+
+    private final TaskMapperImpl mapper = new TaskMapperImpl();
+    private final OutputStream out = OutputStream.nullOutputStream();
+    private ObjectMapper objectMapper;
+    private TaskListingWriterImpl writer;
+    private List<Task> tasks;
+    private PageRequest pageable;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // configured like Spring Boot's ObjectMapper, the null stream is shared so it must stay open
+        objectMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .build();
+        writer = new TaskListingWriterImpl(objectMapper);
+        tasks = TaskFixtures.tasks(pageSize);
+        pageable = PageRequest.of(0, pageSize);
+    }
+
+    @Benchmark
+    public void dtoPage() throws IOException {
+        List<TaskAllDTO> dtoList = tasks.stream()
+                .map(mapper::mapTaskToAllDTO)
+                .toList();
+        objectMapper.writeValue(out, new PageImpl<>(dtoList, pageable, 100_000));
+    }
+
+    @Benchmark
+    public void listingWriter() throws IOException {
+        writer.writePage(new TaskPageListing(tasks, pageable, 100_000), out);
+    }
+}
@@ -0,0 +1,73 @@
+package com.havranek.todolist.benchmark;
+
+import com.havranek.todolist.mapper.TaskMapperImpl;
+import com.havranek.todolist.model.dto.TaskAllDTO;
+import com.havranek.todolist.model.dto.TaskCreateDTO;
+import com.havranek.todolist.model.entity.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity/DTO mapping, one task at a time and a whole list of tasks at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final int CONCURRENT_THREADS = 4;
+
+    @Param({"1000", "100000", "1000000"})
+    private int tasks;
+
+    private final TaskMapperImpl mapper = new TaskMapperImpl();
+    private final TaskCreateDTO createDTO = new TaskCreateDTO("Benchmark task", LocalDate.of(2030, 1, 1), "Created by the mapper benchmark");
+    private List<Task> taskList;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        taskList = TaskFixtures.tasks(tasks);
+    }
+
+    @Benchmark
+    public TaskAllDTO mapTaskToAllDTO() {
+        return mapper.mapTaskToAllDTO(taskList.get(ThreadLocalRandom.current().nextInt(tasks)));
+    }
+
+    @Benchmark
+    @Threads(CONCURRENT_THREADS)
+    public TaskAllDTO mapTaskToAllDTOConcurrent() {
+        return mapper.mapTaskToAllDTO(taskList.get(ThreadLocalRandom.current().nextInt(tasks)));
+    }
+
+    @Benchmark
+    public List<TaskAllDTO> mapAllTasksToAllDTO() {
+        return taskList.stream()
+                .map(mapper::mapTaskToAllDTO)
+                .toList();
+    }
+
+    @Benchmark
+    public Task mapCreateDTOToTask() {
+        return mapper.mapCreateDTOToTask(createDTO);
+    }
+}
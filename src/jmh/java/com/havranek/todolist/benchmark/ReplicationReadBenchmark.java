@@ -0,0 +1,135 @@
+package com.havranek.todolist.benchmark;
+
+import com.havranek.todolist.TodolistApplication;
+import com.havranek.todolist.model.entity.Task;
+import com.havranek.todolist.repository.Repository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read throughput over HTTP against one node and against a leader with followers on localhost, reads
+ * spread evenly over the nodes. All nodes share this machine's cores, so the gain shows how much of a
+ * single node's limit is per-node (Tomcat threads, one store) rather than CPU.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ReplicationReadBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(ReplicationReadBenchmark.CLIENTS)
+public class ReplicationReadBenchmark {
+
+    static final int CLIENTS = 256;
+    private static final int TASKS = 100_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1", "3"})
+    private int nodes;
+
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private final List<String> baseUrls = new ArrayList<>();
+    private HttpClient client;
+
+    @Setup(Level.Trial)
+    public void setup() throws InterruptedException {
+        ConfigurableApplicationContext leader = start("--todolist.replication.role=leader");
+        Repository repository = leader.getBean(Repository.class);
+        repository.clearDb();
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            batch.add(TaskFixtures.task(-1, i));
+        }
+        repository.saveAll(batch);
+        String leaderUrl = baseUrl(leader);
+        for (int i = 1; i < nodes; i++) {
+            ConfigurableApplicationContext follower = start("--todolist.replication.role=follower",
+                    "--todolist.replication.leader-url=" + leaderUrl);
+            Repository copy = follower.getBean(Repository.class);
+            while (copy.count() != TASKS) {
+                Thread.sleep(50);
+            }
+        }
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        // followers first, they keep polling the leader until closed
+        contexts.reversed().forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Benchmark
+    public String getOne() throws Exception {
+        long id = ThreadLocalRandom.current().nextLong(TASKS) + 1;
+        return send(node() + "/" + id);
+    }
+
+    @Benchmark
+    public String getPage() throws Exception {
+        int page = ThreadLocalRandom.current().nextInt(TASKS / PAGE_SIZE);
+        return send(node() + "/all?page=" + page + "&size=" + PAGE_SIZE);
+    }
+
+    private String node() {
+        return baseUrls.get(ThreadLocalRandom.current().nextInt(baseUrls.size()));
+    }
+
+    private ConfigurableApplicationContext start(String... replicationArgs) {
+        // command line arguments, plain properties would lose to application.properties
+        String[] args = new String[replicationArgs.length + 4];
+        args[0] = "--server.port=0";
+        args[1] = "--spring.main.banner-mode=off";
+        args[2] = "--logging.level.root=WARN";
+        args[3] = "--todolist.persistence.enabled=false";
+        System.arraycopy(replicationArgs, 0, args, 4, replicationArgs.length);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TodolistApplication.class).run(args);
+        contexts.add(context);
+        baseUrls.add(baseUrl(context) + "/api/task");
+        return context;
+    }
+
+    private static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private String send(String url) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("HTTP " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
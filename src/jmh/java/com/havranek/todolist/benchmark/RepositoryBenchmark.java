@@ -0,0 +1,147 @@
+package com.havranek.todolist.benchmark;
+
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+import com.havranek.todolist.repository.DbInMemory;
+import com.havranek.todolist.repository.TaskFilter;
+import com.havranek.todolist.repository.TaskSearchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository hot paths on both task stores, single-threaded and with 4 threads sharing the repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int CONCURRENT_THREADS = 4;
+
+    @Param({"1000", "100000", "1000000"})
+    private int tasks;
+
+    @Param({"heap", "off-heap"})
+    private String store;
+
+    private DbInMemory repository;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        repository = TaskFixtures.repository(store, tasks);
+    }
+
+    @Benchmark
+    public Optional<Task> findById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    @Threads(CONCURRENT_THREADS)
+    public Optional<Task> findByIdConcurrent() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    public Task save() {
+        long id = randomId();
+        return repository.save(TaskFixtures.task(id, (int) id));
+    }
+
+    @Benchmark
+    @Threads(CONCURRENT_THREADS)
+    public Task saveConcurrent() {
+        long id = randomId();
+        return repository.save(TaskFixtures.task(id, (int) id));
+    }
+
+    @Benchmark
+    public List<Task> findPage() {
+        return repository.findPage(randomOffset(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    @Threads(CONCURRENT_THREADS)
+    public List<Task> findPageConcurrent() {
+        return repository.findPage(randomOffset(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Task> findAfter() {
+        return repository.findAfter(randomId(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Task> findFilteredByDeadlineDay() {
+        LocalDate day = TaskFixtures.FIRST_DAY.plusDays(30 + ThreadLocalRandom.current().nextInt(365));
+        return repository.findFiltered(new TaskFilter(null, day, day, null, null), 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public long countFilteredOpenByDeadlineDay() {
+        LocalDate day = TaskFixtures.FIRST_DAY.plusDays(30 + ThreadLocalRandom.current().nextInt(365));
+        return repository.countFiltered(new TaskFilter(EnumSet.of(Status.CREATED), day, day, null, null));
+    }
+
+    @Benchmark
+    public TaskSearchResult searchRareAndCommonWord() {
+        return repository.search("number " + randomId(), 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public TaskSearchResult searchCommonWord() {
+        return repository.search("benchmark", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Task> findAll() {
+        return repository.findAll();
+    }
+
+    @Benchmark
+    public TreeMap<LocalDate, Integer> findSolvedThrewDays() {
+        return repository.findSolvedThrewDays();
+    }
+
+    @Benchmark
+    public int findSolvedTaskPerDay() {
+        return repository.findSolvedTaskPerDay(TaskFixtures.FIRST_DAY.plusDays(ThreadLocalRandom.current().nextInt(400)));
+    }
+
+    @Benchmark
+    @Threads(CONCURRENT_THREADS)
+    public int findSolvedTaskPerDayConcurrent() {
+        return repository.findSolvedTaskPerDay(TaskFixtures.FIRST_DAY.plusDays(ThreadLocalRandom.current().nextInt(400)));
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(tasks) + 1;
+    }
+
+    private long randomOffset() {
+        return ThreadLocalRandom.current().nextLong(Math.max(tasks - PAGE_SIZE, 1));
+    }
+}
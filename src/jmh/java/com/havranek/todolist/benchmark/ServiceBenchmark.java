@@ -0,0 +1,132 @@
+package com.havranek.todolist.benchmark;
+
+import com.havranek.todolist.mapper.TaskMapperImpl;
+import com.havranek.todolist.model.dto.BatchResult;
+import com.havranek.todolist.model.dto.SolvedPerDay;
+import com.havranek.todolist.model.dto.TaskCursorListing;
+import com.havranek.todolist.model.dto.TaskPageListing;
+import com.havranek.todolist.model.entity.Task;
+import com.havranek.todolist.service.TaskServiceImpl;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service calls behind the REST endpoints, including DTO mapping and paging.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int CONCURRENT_THREADS = 4;
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int tasks;
+
+    private ValidatorFactory validatorFactory;
+    private TaskServiceImpl service;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        service = new TaskServiceImpl(TaskFixtures.repository("heap", tasks), new TaskMapperImpl(),
+                validatorFactory.getValidator(), BATCH_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Task getOne() {
+        return service.getOne(randomId());
+    }
+
+    @Benchmark
+    @Threads(CONCURRENT_THREADS)
+    public Task getOneConcurrent() {
+        return service.getOne(randomId());
+    }
+
+    @Benchmark
+    public TaskPageListing getAll() {
+        return service.getAll(PageRequest.of(randomPage(), PAGE_SIZE));
+    }
+
+    @Benchmark
+    @Threads(CONCURRENT_THREADS)
+    public TaskPageListing getAllConcurrent() {
+        return service.getAll(PageRequest.of(randomPage(), PAGE_SIZE));
+    }
+
+    @Benchmark
+    public TaskCursorListing getAllAfter() {
+        return service.getAllAfter(null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<SolvedPerDay> getSolvedSummary() {
+        return service.getSolvedSummary(PageRequest.of(0, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public Task update() {
+        long id = randomId();
+        return service.update(TaskFixtures.task(id, (int) id));
+    }
+
+    @Benchmark
+    @Threads(CONCURRENT_THREADS)
+    public Task updateConcurrent() {
+        long id = randomId();
+        return service.update(TaskFixtures.task(id, (int) id));
+    }
+
+    /** Per task cost of a batch update, comparable with {@link #update()}. */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BatchResult updateAllBatch() {
+        List<Task> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            long id = randomId();
+            batch.add(TaskFixtures.task(id, (int) id));
+        }
+        return service.updateAll(batch);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(tasks) + 1;
+    }
+
+    private int randomPage() {
+        return ThreadLocalRandom.current().nextInt(Math.max(tasks / PAGE_SIZE, 1));
+    }
+}
@@ -0,0 +1,112 @@
+package com.havranek.todolist.benchmark;
+
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+import com.havranek.todolist.repository.DbInMemory;
+import com.havranek.todolist.repository.DeadlineOutcomes;
+import com.havranek.todolist.repository.LeadTime;
+import com.havranek.todolist.repository.StatusCounts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Task statistics over a quarter of the year: the column scans of the repository against the same
+ * aggregation walking the {@link Task} objects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class StatsBenchmark {
+
+    private static final LocalDate FROM = TaskFixtures.FIRST_DAY.plusDays(90);
+    private static final LocalDate TO = TaskFixtures.FIRST_DAY.plusDays(180);
+    private static final LocalDate TODAY = TaskFixtures.FIRST_DAY.plusDays(200);
+
+    @Param({"100000", "1000000", "5000000"})
+    private int tasks;
+
+    private DbInMemory repository;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        repository = TaskFixtures.repository("heap", tasks);
+    }
+
+    @Benchmark
+    public StatusCounts statusColumns() {
+        return repository.countCreatedByStatus(FROM, TO);
+    }
+
+    @Benchmark
+    public Map<Status, Long> statusObjects() {
+        return repository.streamAll()
+                .filter(task -> inRange(task.getCreated()))
+                .collect(Collectors.groupingBy(Task::getStatus, () -> new EnumMap<>(Status.class), Collectors.counting()));
+    }
+
+    @Benchmark
+    public LeadTime leadTimeColumns() {
+        return repository.sumLeadTime(FROM, TO);
+    }
+
+    @Benchmark
+    public LeadTime leadTimeObjects() {
+        long completed = 0;
+        long totalDays = 0;
+        for (Task task : (Iterable<Task>) repository.streamAll()::iterator) {
+            if (task.getStatus() == Status.COMPLETED && inRange(task.getFinished()) && task.getCreated() != null) {
+                completed++;
+                totalDays += ChronoUnit.DAYS.between(task.getCreated(), task.getFinished());
+            }
+        }
+        return new LeadTime(completed, totalDays);
+    }
+
+    @Benchmark
+    public DeadlineOutcomes deadlinesColumns() {
+        return repository.countDeadlineOutcomes(FROM, TO, TODAY);
+    }
+
+    @Benchmark
+    public DeadlineOutcomes deadlinesObjects() {
+        long due = 0;
+        long missed = 0;
+        for (Task task : (Iterable<Task>) repository.streamAll()::iterator) {
+            if (!inRange(task.getDeadline())) {
+                continue;
+            }
+            due++;
+            boolean late = task.getStatus() == Status.COMPLETED
+                    ? task.getFinished() != null && task.getFinished().isAfter(task.getDeadline())
+                    : task.getDeadline().isBefore(TODAY);
+            if (late) {
+                missed++;
+            }
+        }
+        return new DeadlineOutcomes(due, missed);
+    }
+
+    private static boolean inRange(LocalDate day) {
+        return day != null && !day.isBefore(FROM) && !day.isAfter(TO);
+    }
+}
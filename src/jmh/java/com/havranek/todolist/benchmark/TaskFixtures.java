@@ -0,0 +1,70 @@
+package com.havranek.todolist.benchmark;
+
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+import com.havranek.todolist.repository.DbInMemory;
+import com.havranek.todolist.repository.HeapTaskStore;
+import com.havranek.todolist.repository.OffHeapTaskStore;
+import com.havranek.todolist.repository.TaskStore;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Deterministic task data shared by the benchmarks: every third task is completed,
+ * finished dates spread over a year.
+ */
+final class TaskFixtures {
+
+    static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+
+    private TaskFixtures() {
+    }
+
+    static DbInMemory repository(String store, int tasks) {
+        DbInMemory repository = new DbInMemory(taskStore(store), Optional.empty());
+        repository.clearDb();
+        List<Task> batch = new ArrayList<>(10_000);
+        for (int i = 0; i < tasks; i++) {
+            batch.add(task(-1, i));
+            if (batch.size() == 10_000) {
+                repository.saveAll(batch);
+                batch = new ArrayList<>(10_000);
+            }
+        }
+        repository.saveAll(batch);
+        return repository;
+    }
+
+    static List<Task> tasks(int tasks) {
+        List<Task> list = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            list.add(task(i + 1, i));
+        }
+        return list;
+    }
+
+    static Task task(long id, int seed) {
+        LocalDate created = FIRST_DAY.plusDays(seed % 365);
+        boolean completed = seed % 3 == 0;
+        return new Task(
+                id,
+                "Task " + seed,
+                completed ? Status.COMPLETED : Status.CREATED,
+                created,
+                created.plusDays(30),
+                completed ? created.plusDays(seed % 30) : null,
+                "Benchmark task number " + seed
+        );
+    }
+
+    private static TaskStore taskStore(String store) {
+        return switch (store) {
+            case "heap" -> new HeapTaskStore();
+            case "off-heap" -> new OffHeapTaskStore();
+            default -> throw new IllegalArgumentException("Unknown store: " + store);
+        };
+    }
+}
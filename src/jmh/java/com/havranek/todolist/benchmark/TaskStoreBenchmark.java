@@ -0,0 +1,115 @@
+package com.havranek.todolist.benchmark;
+
+import com.havranek.todolist.model.entity.Task;
+import com.havranek.todolist.repository.HeapTaskStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link HeapTaskStore} (primitive id map plus sorted id postings) against the
+ * {@code ConcurrentSkipListMap<Long, Task>} it replaced. The setup prints the JOL footprint of both
+ * structures without the tasks themselves; run with {@code -prof gc} to see that lookups allocate nothing.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="TaskStoreBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djol.magicFieldOffset=true"})
+public class TaskStoreBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int CONCURRENT_THREADS = 4;
+
+    @Param({"100000", "1000000"})
+    private int tasks;
+
+    private HeapTaskStore store;
+    private ConcurrentSkipListMap<Long, Task> skipList;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<Task> taskList = TaskFixtures.tasks(tasks);
+        store = new HeapTaskStore();
+        skipList = new ConcurrentSkipListMap<>();
+        for (Task task : taskList) {
+            store.put(task);
+            skipList.put(task.getId(), task);
+        }
+
+        long taskBytes = GraphLayout.parseInstance(taskList.toArray()).totalSize();
+        long storeBytes = GraphLayout.parseInstance(store).totalSize() - taskBytes;
+        long skipListBytes = GraphLayout.parseInstance(skipList).totalSize() - taskBytes;
+        System.out.printf("%nFootprint without the tasks, %d tasks: HeapTaskStore %d B (%.1f B/task), "
+                        + "ConcurrentSkipListMap %d B (%.1f B/task)%n",
+                tasks, storeBytes, (double) storeBytes / tasks, skipListBytes, (double) skipListBytes / tasks);
+    }
+
+    @Benchmark
+    public Task getStore() {
+        return store.get(randomId());
+    }
+
+    @Benchmark
+    public Task getSkipList() {
+        return skipList.get(randomId());
+    }
+
+    @Benchmark
+    @Threads(CONCURRENT_THREADS)
+    public Task getStoreConcurrent() {
+        return store.get(randomId());
+    }
+
+    @Benchmark
+    @Threads(CONCURRENT_THREADS)
+    public Task getSkipListConcurrent() {
+        return skipList.get(randomId());
+    }
+
+    @Benchmark
+    public List<Task> pageStore() {
+        return store.streamAfter(randomId()).limit(PAGE_SIZE).toList();
+    }
+
+    @Benchmark
+    public List<Task> pageSkipList() {
+        return skipList.tailMap(randomId(), false).values().stream().limit(PAGE_SIZE).toList();
+    }
+
+    @Benchmark
+    public Task replaceStore() {
+        long id = randomId();
+        return store.put(TaskFixtures.task(id, (int) id));
+    }
+
+    @Benchmark
+    public Task replaceSkipList() {
+        long id = randomId();
+        return skipList.put(id, TaskFixtures.task(id, (int) id));
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(tasks) + 1;
+    }
+}
@@ -0,0 +1,27 @@
+package com.havranek.todolist.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ImportConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor importJobExecutor(@Value("${todolist.import.jobs.concurrency:2}") int concurrency,
+                                                    @Value("${todolist.import.jobs.queue-capacity:10}") int queueCapacity) {
+        // platform threads even with virtual request threads: a job parses its stored upload and saves
+        // under the repository lock, it never waits on the client
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("import-job-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -0,0 +1,22 @@
+package com.havranek.todolist.config;
+
+import com.havranek.todolist.repository.TaskPersistence;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+@ConditionalOnProperty(name = "todolist.persistence.enabled", havingValue = "true")
+public class PersistenceConfig {
+
+    @Bean
+    public TaskPersistence taskPersistence(@Value("${todolist.persistence.dir:data}") String dir,
+                                           @Value("${todolist.persistence.fsync:true}") boolean fsync,
+                                           @Value("${todolist.persistence.snapshot-interval-seconds:300}") long snapshotIntervalSeconds) throws IOException {
+        return new TaskPersistence(Path.of(dir), fsync, snapshotIntervalSeconds);
+    }
+}
@@ -0,0 +1,28 @@
+package com.havranek.todolist.config;
+
+import com.havranek.todolist.service.ReplicationFollower;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "todolist.replication.role", havingValue = "follower")
+public class ReplicationConfig {
+
+    /** A follower without a copy yet or lagging more than max-lag-millis is down, the load balancer skips it. */
+    @Bean
+    public HealthIndicator replicationHealthIndicator(ReplicationFollower follower,
+                                                      @Value("${todolist.replication.max-lag-millis:5000}") long maxLagMillis) {
+        return () -> {
+            long lagMillis = follower.lagMillis();
+            Health.Builder health = follower.synced() && lagMillis <= maxLagMillis ? Health.up() : Health.down();
+            return health
+                    .withDetail("lagSequences", follower.lagSequences())
+                    .withDetail("lagMillis", lagMillis)
+                    .build();
+        };
+    }
+}
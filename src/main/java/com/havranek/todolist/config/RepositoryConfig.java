@@ -0,0 +1,71 @@
+package com.havranek.todolist.config;
+
+import com.havranek.todolist.repository.DbInMemory;
+import com.havranek.todolist.repository.HeapTaskStore;
+import com.havranek.todolist.repository.MeteredRepository;
+import com.havranek.todolist.repository.OffHeapTaskStore;
+import com.havranek.todolist.repository.Repository;
+import com.havranek.todolist.repository.TaskPersistence;
+import com.havranek.todolist.repository.TaskReplication;
+import com.havranek.todolist.repository.TaskStore;
+import com.havranek.todolist.repository.TieredTaskStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.Optional;
+
+@Configuration
+public class RepositoryConfig {
+
+    @Bean
+    public TaskStore taskStore(@Value("${todolist.repository.store:heap}") String store,
+                               @Value("${todolist.tiered.dir:cold}") String coldDir,
+                               @Value("${todolist.tiered.cold-after-days:30}") int coldAfterDays,
+                               @Value("${todolist.tiered.cache-size:10000}") int cacheSize,
+                               @Value("${todolist.tiered.move-interval-minutes:60}") long moveIntervalMinutes) throws IOException {
+        return switch (store) {
+            case "heap" -> new HeapTaskStore();
+            case "off-heap" -> new OffHeapTaskStore();
+            case "tiered" -> {
+                TieredTaskStore tiered = new TieredTaskStore(new HeapTaskStore(), Path.of(coldDir),
+                        coldAfterDays, cacheSize, Clock.systemDefaultZone());
+                tiered.scheduleMoves(moveIntervalMinutes);
+                yield tiered;
+            }
+            default -> throw new IllegalArgumentException("Unknown todolist.repository.store: " + store);
+        };
+    }
+
+    @Bean
+    public DbInMemory taskDb(TaskStore taskStore, Optional<TaskPersistence> persistence,
+                             @Value("${todolist.changes.capacity:65536}") int changeCapacity) {
+        return new DbInMemory(taskStore, persistence, changeCapacity);
+    }
+
+    /** The one the application uses, the plain store is only for replication. */
+    @Bean
+    @Primary
+    public Repository repository(DbInMemory taskDb, MeterRegistry meterRegistry) {
+        return new MeteredRepository(taskDb, meterRegistry);
+    }
+
+    @Bean
+    public TaskReplication taskReplication(DbInMemory taskDb,
+                                           @Value("${todolist.replication.role:standalone}") String role,
+                                           @Value("${todolist.replication.batch-size:1000}") int batchSize) {
+        TaskReplication replication = new TaskReplication(taskDb, batchSize);
+        switch (role) {
+            case "standalone", "leader" -> {
+            }
+            case "follower" -> replication.startFollowing();
+            default -> throw new IllegalArgumentException("Unknown todolist.replication.role: " + role);
+        }
+        return replication;
+    }
+}
@@ -0,0 +1,47 @@
+package com.havranek.todolist.config;
+
+import com.havranek.todolist.model.dto.TaskCursorListing;
+import com.havranek.todolist.model.dto.TaskPageListing;
+import com.havranek.todolist.service.TaskListingWriter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/** Write-only JSON converter for task listings, ahead of Jackson so it never sees them. */
+final class TaskListingMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final TaskListingWriter writer;
+
+    TaskListingMessageConverter(TaskListingWriter writer) {
+        super(MediaType.APPLICATION_JSON);
+        this.writer = writer;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == TaskPageListing.class || clazz == TaskCursorListing.class;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Task listings are write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object listing, HttpOutputMessage outputMessage) throws IOException {
+        if (listing instanceof TaskPageListing page) {
+            writer.writePage(page, outputMessage.getBody());
+        } else {
+            writer.writeCursorPage((TaskCursorListing) listing, outputMessage.getBody());
+        }
+    }
+}
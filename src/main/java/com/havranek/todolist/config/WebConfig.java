@@ -0,0 +1,23 @@
+package com.havranek.todolist.config;
+
+import com.havranek.todolist.service.TaskListingWriter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final TaskListingWriter taskListingWriter;
+
+    public WebConfig(TaskListingWriter taskListingWriter) {
+        this.taskListingWriter = taskListingWriter;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new TaskListingMessageConverter(taskListingWriter));
+    }
+}
@@ -1,10 +1,16 @@
 package com.havranek.todolist.controller;
 
 import com.havranek.todolist.exceptions.EntityNotFound;
+import com.havranek.todolist.exceptions.ImportQueueFull;
+import com.havranek.todolist.exceptions.PersistenceFailed;
+import com.havranek.todolist.exceptions.ReadOnlyReplica;
+import com.havranek.todolist.exceptions.VersionConflict;
 import com.havranek.todolist.model.messages.ErrorResponse;
 import com.havranek.todolist.model.messages.ErrorResponseValidation;
 import com.havranek.todolist.model.messages.ErrorValidationField;
 import com.opencsv.exceptions.CsvValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +28,14 @@ import java.util.List;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final Counter entityNotFound;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.entityNotFound = Counter.builder("todolist.errors.entity.not.found")
+                .description("Requests answered with 404 because the task does not exist")
+                .register(meterRegistry);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponseValidation> handleValidationErrors(MethodArgumentNotValidException ex) {
         List<ErrorValidationField> fieldErrors = ex.getBindingResult().getFieldErrors().stream()
@@ -48,6 +62,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(EntityNotFound.class)
     public ResponseEntity<ErrorResponse> handleNotExistEntity (EntityNotFound ex){
+        entityNotFound.increment();
         ErrorResponse errorResponse = new ErrorResponse(
                 LocalDateTime.now(),
                 HttpStatus.NOT_FOUND.value(),
@@ -55,6 +70,37 @@ public class GlobalExceptionHandler {
         );
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
     }
+
+    @ExceptionHandler(VersionConflict.class)
+    public ResponseEntity<ErrorResponse> handleVersionConflict(VersionConflict ex){
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.CONFLICT.value(),
+                ex.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    @ExceptionHandler(ImportQueueFull.class)
+    public ResponseEntity<ErrorResponse> handleImportQueueFull(ImportQueueFull ex){
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
+    @ExceptionHandler({ReadOnlyReplica.class, PersistenceFailed.class})
+    public ResponseEntity<ErrorResponse> handleReadOnlyStore(RuntimeException ex){
+        ErrorResponse errorResponse = new ErrorResponse(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                ex.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ErrorResponse> handleJsonParseException(HttpMessageNotReadableException ex) {
         Throwable cause = ex.getMostSpecificCause();
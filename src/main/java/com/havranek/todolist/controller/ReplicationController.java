@@ -0,0 +1,39 @@
+package com.havranek.todolist.controller;
+
+import com.havranek.todolist.repository.TaskReplication;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Replication log of the leader. Followers poll it with the sequence and leader instance of the last
+ * batch they applied and get the next batch of writes, or a full copy, in the binary format of
+ * {@link TaskReplication}.
+ */
+@RestController
+@RequestMapping("api/replication")
+@ConditionalOnProperty(name = "todolist.replication.role", havingValue = "leader")
+public class ReplicationController {
+
+    private TaskReplication replication;
+
+    @Autowired
+    public ReplicationController(TaskReplication replication) {
+        this.replication = replication;
+    }
+
+    @GetMapping(value = "/log", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public void log(@RequestParam(defaultValue = "0") long after,
+                    @RequestParam(required = false) String instance,
+                    HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        replication.writeBatch(instance, after, response.getOutputStream());
+    }
+}
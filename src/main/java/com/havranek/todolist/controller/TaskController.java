@@ -1,54 +1,152 @@
 package com.havranek.todolist.controller;
 
+import com.havranek.todolist.model.dto.BatchResult;
+import com.havranek.todolist.model.dto.DeadlineStats;
+import com.havranek.todolist.model.dto.ImportJobStatus;
+import com.havranek.todolist.model.dto.LeadTimeStats;
 import com.havranek.todolist.model.dto.SolvedPerDay;
-import com.havranek.todolist.model.dto.TaskAllDTO;
+import com.havranek.todolist.model.dto.StatusStats;
 import com.havranek.todolist.model.dto.TaskCreateDTO;
+import com.havranek.todolist.model.dto.TaskCursorListing;
+import com.havranek.todolist.model.dto.TaskFilterRequest;
+import com.havranek.todolist.model.dto.TaskPageListing;
 import com.havranek.todolist.model.entity.Task;
+import com.havranek.todolist.service.ImportJobService;
+import com.havranek.todolist.service.TaskExporter;
 import com.havranek.todolist.service.TaskService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping("api/task")
 public class TaskController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private TaskService taskService;
+    private ImportJobService importJobService;
+    private TaskExporter taskExporter;
 
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, ImportJobService importJobService, TaskExporter taskExporter) {
         this.taskService = taskService;
+        this.importJobService = importJobService;
+        this.taskExporter = taskExporter;
     }
 
+    // Reads answer If-None-Match before building anything, a null return leaves the 304 that
+    // checkNotModified prepared. The store tag is read first, so a write racing the read only
+    // makes the next poll download the page again.
+
     @GetMapping("/{id}")
-    public ResponseEntity<Task> showOneTask(@PathVariable long id){
+    public ResponseEntity<Task> showOneTask(@PathVariable long id, WebRequest request){
         Task dbTask = taskService.getOne(id);
-        return ResponseEntity.ok(dbTask);
+        String eTag = taskService.getTaskETag(dbTask);
+        if (request.checkNotModified(eTag)){
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(dbTask);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Page<TaskAllDTO>> showAll(Pageable pageable){
-        Page<TaskAllDTO> listTaskDTO = taskService.getAll(pageable);
-        return ResponseEntity.ok(listTaskDTO);
+    public ResponseEntity<TaskPageListing> showAll(Pageable pageable, TaskFilterRequest filter, WebRequest request){
+        if (filter.due() != null){
+            // overdue and this week are resolved against today, so no store ETag here
+            return ResponseEntity.ok(taskService.getAll(pageable, filter));
+        }
+        String eTag = taskService.getStoreETag();
+        if (request.checkNotModified(eTag)){
+            return null;
+        }
+        TaskPageListing listing = taskService.getAll(pageable, filter);
+        return ResponseEntity.ok().eTag(eTag).body(listing);
+    }
+
+    @GetMapping("/all/cursor")
+    public ResponseEntity<TaskCursorListing> showAllAfter(@RequestParam(required = false) String after,
+                                                       @RequestParam(defaultValue = "20") int size,
+                                                       WebRequest request){
+        String eTag = taskService.getStoreETag();
+        if (request.checkNotModified(eTag)){
+            return null;
+        }
+        TaskCursorListing cursorPage = taskService.getAllAfter(after, size);
+        return ResponseEntity.ok().eTag(eTag).body(cursorPage);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<TaskPageListing> search(@RequestParam String q, Pageable pageable, WebRequest request){
+        String eTag = taskService.getStoreETag();
+        if (request.checkNotModified(eTag)){
+            return null;
+        }
+        TaskPageListing found = taskService.search(q, pageable);
+        return ResponseEntity.ok().eTag(eTag).body(found);
     }
 
     @GetMapping("/solved/{day}")
-    public ResponseEntity<SolvedPerDay> showSolved(@PathVariable String day){
+    public ResponseEntity<SolvedPerDay> showSolved(@PathVariable String day, WebRequest request){
+        String eTag = taskService.getStoreETag();
+        if (request.checkNotModified(eTag)){
+            return null;
+        }
         SolvedPerDay solved = taskService.getSolvedPerDay(day);
-        return ResponseEntity.ok(solved);
+        return ResponseEntity.ok().eTag(eTag).body(solved);
     }
 
     @GetMapping("/solved/all")
-    public ResponseEntity<Page<SolvedPerDay>> showAllSolved(Pageable pageable){
+    public ResponseEntity<Page<SolvedPerDay>> showAllSolved(Pageable pageable, WebRequest request){
+        String eTag = taskService.getStoreETag();
+        if (request.checkNotModified(eTag)){
+            return null;
+        }
         Page<SolvedPerDay> solvedSummary = taskService.getSolvedSummary(pageable);
-        return ResponseEntity.ok(solvedSummary);
+        return ResponseEntity.ok().eTag(eTag).body(solvedSummary);
+    }
+
+    @GetMapping("/stats/status")
+    public ResponseEntity<StatusStats> showStatusStats(@RequestParam(required = false) String from,
+                                                       @RequestParam(required = false) String to,
+                                                       WebRequest request){
+        String eTag = taskService.getStoreETag();
+        if (request.checkNotModified(eTag)){
+            return null;
+        }
+        StatusStats stats = taskService.getStatusStats(from, to);
+        return ResponseEntity.ok().eTag(eTag).body(stats);
+    }
+
+    @GetMapping("/stats/lead-time")
+    public ResponseEntity<LeadTimeStats> showLeadTimeStats(@RequestParam(required = false) String from,
+                                                           @RequestParam(required = false) String to,
+                                                           WebRequest request){
+        String eTag = taskService.getStoreETag();
+        if (request.checkNotModified(eTag)){
+            return null;
+        }
+        LeadTimeStats stats = taskService.getLeadTimeStats(from, to);
+        return ResponseEntity.ok().eTag(eTag).body(stats);
+    }
+
+    @GetMapping("/stats/deadlines")
+    public ResponseEntity<DeadlineStats> showDeadlineStats(@RequestParam(required = false) String from,
+                                                           @RequestParam(required = false) String to){
+        // misses depend on today as well, so no store ETag here
+        DeadlineStats stats = taskService.getDeadlineStats(from, to);
+        return ResponseEntity.ok(stats);
     }
 
     @PostMapping()
@@ -61,16 +159,42 @@ public class TaskController {
         return ResponseEntity.created(newUri).body(dbTask);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult> createNewTasks(@RequestBody List<TaskCreateDTO> taskDTOs){
+        BatchResult result = taskService.createAll(taskDTOs);
+        return ResponseEntity.ok(result);
+    }
+
     @PostMapping("/csv/new")
-    public ResponseEntity<Page<TaskAllDTO>> importCSVNew(@RequestParam("file") MultipartFile file){
-            Page<TaskAllDTO> listTaskDTO = taskService.importCreateCSV(file);
-            return ResponseEntity.ok(listTaskDTO);
+    public ResponseEntity<ImportJobStatus> importCSVNew(@RequestParam("file") MultipartFile file){
+            ImportJobStatus job = importJobService.submitCreateCSV(file);
+            return ResponseEntity.accepted().location(importJobUri(job)).body(job);
     }
 
     @PostMapping("/csv/exist")
-    public ResponseEntity<Page<TaskAllDTO>> importCSVExist(@RequestParam("file") MultipartFile file){
-            Page<TaskAllDTO> listTaskDTO = taskService.importExistCSV(file);
-            return ResponseEntity.ok(listTaskDTO);
+    public ResponseEntity<ImportJobStatus> importCSVExist(@RequestParam("file") MultipartFile file){
+            ImportJobStatus job = importJobService.submitExistCSV(file);
+            return ResponseEntity.accepted().location(importJobUri(job)).body(job);
+    }
+
+    @GetMapping("/csv/jobs/{jobId}")
+    public ResponseEntity<ImportJobStatus> showImportJob(@PathVariable String jobId){
+        ImportJobStatus job = importJobService.getStatus(jobId);
+        return ResponseEntity.ok(job);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAll(@RequestParam(defaultValue = "csv") String format){
+        return switch (format.toLowerCase()) {
+            case "csv" -> ResponseEntity.ok()
+                    .contentType(TEXT_CSV)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.csv\"")
+                    .body(taskExporter::exportCSV);
+            case "ndjson" -> ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(taskExporter::exportNDJSON);
+            default -> throw new IllegalArgumentException("Unsupported export format. Allowed values: csv, ndjson.");
+        };
     }
 
     @PutMapping()
@@ -79,10 +203,29 @@ public class TaskController {
         return ResponseEntity.ok(dbTask);
     }
 
+    @PutMapping("/batch")
+    public ResponseEntity<BatchResult> updateExisting(@RequestBody List<Task> tasks){
+        BatchResult result = taskService.updateAll(tasks);
+        return ResponseEntity.ok(result);
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<BatchResult> deleteTasks(@RequestBody List<Long> ids){
+        BatchResult result = taskService.deleteAll(ids);
+        return ResponseEntity.ok(result);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> softDelete(@PathVariable long id){
         taskService.deleteById(id);
         return ResponseEntity.noContent().build();
     }
 
+    private URI importJobUri(ImportJobStatus job){
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/task/csv/jobs/{jobId}")
+                .buildAndExpand(job.id())
+                .toUri();
+    }
+
 }
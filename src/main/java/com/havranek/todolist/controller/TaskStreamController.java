@@ -0,0 +1,75 @@
+package com.havranek.todolist.controller;
+
+import com.havranek.todolist.model.dto.ImportReport;
+import com.havranek.todolist.model.dto.SolvedPerDay;
+import com.havranek.todolist.model.dto.TaskAllDTO;
+import com.havranek.todolist.model.dto.TaskFilterRequest;
+import com.havranek.todolist.service.CsvTaskImporter;
+import com.havranek.todolist.service.TaskChangeService;
+import com.havranek.todolist.service.TaskService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Streaming variant of the task API. Listings are written as NDJSON one element at a time and the
+ * next element is pulled only after the previous one was written, so a slow client slows down the
+ * repository stream instead of the server buffering the listing.
+ */
+@RestController
+@RequestMapping("api/task/stream")
+public class TaskStreamController {
+
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private TaskService taskService;
+    private CsvTaskImporter csvTaskImporter;
+    private TaskChangeService taskChangeService;
+
+    @Autowired
+    public TaskStreamController(TaskService taskService, CsvTaskImporter csvTaskImporter,
+                                TaskChangeService taskChangeService) {
+        this.taskService = taskService;
+        this.csvTaskImporter = csvTaskImporter;
+        this.taskChangeService = taskChangeService;
+    }
+
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TaskAllDTO> streamAll(TaskFilterRequest filter){
+        return taskService.streamAll(filter);
+    }
+
+    @GetMapping(value = "/solved", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<SolvedPerDay> streamSolved(){
+        return taskService.streamSolvedSummary();
+    }
+
+    /** EventSource reconnects with Last-Event-ID, other clients may pass the id as after. */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<?>> streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                                  @RequestParam(required = false) String after){
+        return taskChangeService.streamChanges(lastEventId != null ? lastEventId : after);
+    }
+
+    @PostMapping(value = "/csv/new", consumes = "text/csv")
+    public Mono<ImportReport> importCSVNew(HttpServletRequest request){
+        // the body is read in buffers only as fast as the import saves the rows
+        Flux<DataBuffer> csv = DataBufferUtils.readInputStream(request::getInputStream,
+                        DefaultDataBufferFactory.sharedInstance, READ_BUFFER_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+        return csvTaskImporter.importNew(csv);
+    }
+}
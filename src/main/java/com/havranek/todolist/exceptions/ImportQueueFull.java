@@ -0,0 +1,7 @@
+package com.havranek.todolist.exceptions;
+
+public class ImportQueueFull extends RuntimeException {
+    public ImportQueueFull() {
+        super("Too many imports in progress, try again later");
+    }
+}
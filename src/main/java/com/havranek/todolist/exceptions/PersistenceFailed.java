@@ -0,0 +1,7 @@
+package com.havranek.todolist.exceptions;
+
+public class PersistenceFailed extends RuntimeException {
+    public PersistenceFailed(Throwable cause) {
+        super("Writing the write-ahead log failed, the store is read-only until restart", cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.havranek.todolist.exceptions;
+
+public class ReadOnlyReplica extends RuntimeException {
+    public ReadOnlyReplica() {
+        super("This node is a read-only replica, send writes to the leader");
+    }
+}
@@ -0,0 +1,11 @@
+package com.havranek.todolist.exceptions;
+
+public class VersionConflict extends RuntimeException {
+    public VersionConflict(String message) {
+        super(message);
+    }
+
+    public VersionConflict() {
+        super("Task was changed by another request, reload it and try again");
+    }
+}
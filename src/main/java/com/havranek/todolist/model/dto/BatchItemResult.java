@@ -0,0 +1,14 @@
+package com.havranek.todolist.model.dto;
+
+import com.havranek.todolist.model.messages.ErrorValidationField;
+
+import java.util.List;
+
+public record BatchItemResult(
+        int index,
+        int status,
+        Long id,
+        String error,
+        List<ErrorValidationField> listOfErrors
+) {
+}
@@ -0,0 +1,10 @@
+package com.havranek.todolist.model.dto;
+
+import java.util.List;
+
+public record BatchResult(
+        int succeeded,
+        int failed,
+        List<BatchItemResult> items
+) {
+}
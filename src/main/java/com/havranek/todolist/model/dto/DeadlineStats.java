@@ -0,0 +1,10 @@
+package com.havranek.todolist.model.dto;
+
+public record DeadlineStats(
+        String from,
+        String to,
+        long due,
+        long missed,
+        Double missRate
+) {
+}
@@ -0,0 +1,8 @@
+package com.havranek.todolist.model.dto;
+
+public enum ImportJobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
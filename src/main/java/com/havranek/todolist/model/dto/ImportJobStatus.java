@@ -0,0 +1,19 @@
+package com.havranek.todolist.model.dto;
+
+import com.havranek.todolist.model.messages.ImportRowError;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record ImportJobStatus(
+        String id,
+        ImportJobState state,
+        LocalDateTime submitted,
+        long processedRows,
+        long importedRows,
+        long rejectedRows,
+        double rowsPerSecond,
+        List<ImportRowError> errors,
+        String failure
+) {
+}
@@ -0,0 +1,13 @@
+package com.havranek.todolist.model.dto;
+
+import com.havranek.todolist.model.messages.ImportRowError;
+
+import java.util.List;
+
+public record ImportReport(
+        long processedRows,
+        long importedRows,
+        long rejectedRows,
+        List<ImportRowError> errors
+) {
+}
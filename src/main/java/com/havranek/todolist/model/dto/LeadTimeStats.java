@@ -0,0 +1,9 @@
+package com.havranek.todolist.model.dto;
+
+public record LeadTimeStats(
+        String from,
+        String to,
+        long completed,
+        Double averageDays
+) {
+}
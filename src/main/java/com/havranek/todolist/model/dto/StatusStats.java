@@ -0,0 +1,14 @@
+package com.havranek.todolist.model.dto;
+
+import com.havranek.todolist.model.entity.Status;
+
+import java.util.Map;
+
+public record StatusStats(
+        String from,
+        String to,
+        long total,
+        Map<Status, Long> counts,
+        Map<Status, Double> rates
+) {
+}
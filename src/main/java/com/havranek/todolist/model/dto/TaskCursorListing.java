@@ -0,0 +1,12 @@
+package com.havranek.todolist.model.dto;
+
+import com.havranek.todolist.model.entity.Task;
+
+import java.util.List;
+
+/** Cursor page of stored tasks, written straight to JSON as {@link TaskAllDTO} projections. */
+public record TaskCursorListing(
+        List<Task> tasks,
+        String nextCursor
+) {
+}
@@ -0,0 +1,6 @@
+package com.havranek.todolist.model.dto;
+
+public enum TaskDue {
+    OVERDUE,
+    THIS_WEEK
+}
@@ -0,0 +1,20 @@
+package com.havranek.todolist.model.dto;
+
+import com.havranek.todolist.model.entity.Status;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+public record TaskFilterRequest(
+        Status status,
+        TaskDue due,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        LocalDate deadlineFrom,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        LocalDate deadlineTo,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        LocalDate finishedFrom,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+        LocalDate finishedTo
+) {
+}
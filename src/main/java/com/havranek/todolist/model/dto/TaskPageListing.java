@@ -0,0 +1,17 @@
+package com.havranek.todolist.model.dto;
+
+import com.havranek.todolist.model.entity.Task;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Page of stored tasks, written straight to JSON as {@link TaskAllDTO} projections in the shape of a
+ * serialized {@link org.springframework.data.domain.PageImpl}.
+ */
+public record TaskPageListing(
+        List<Task> tasks,
+        Pageable pageable,
+        long totalElements
+) {
+}
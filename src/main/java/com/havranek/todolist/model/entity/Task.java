@@ -21,6 +21,7 @@ public class Task {
     private LocalDate finished;
     @Size(min = 5, max = 250, message = "Required range 5-250 characters")
     private String description;
+    private long version;
 
     public Task() {
         this.created = LocalDate.now();
@@ -37,6 +38,11 @@ public class Task {
         this.description = description;
     }
 
+    public Task(long id, String title, Status status, LocalDate created, LocalDate deadline, LocalDate finished, String description, long version) {
+        this(id, title, status, created, deadline, finished, description);
+        this.version = version;
+    }
+
     public void setId(long id) {
         this.id = id;
     }
@@ -92,4 +98,16 @@ public class Task {
     public void setDescription(String description) {
         this.description = description;
     }
+
+    /**
+     * Version of the stored task, raised by every save. A task sent with a non-zero version is
+     * only saved if the stored one still has that version; 0 saves unconditionally.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,5 @@
+package com.havranek.todolist.model.messages;
+
+public record ImportRowError(long row,
+                             String message) {
+}
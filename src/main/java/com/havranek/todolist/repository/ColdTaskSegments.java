@@ -0,0 +1,244 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Task;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Append-only segment files holding the cold tier of a {@link TieredTaskStore}, one
+ * {@link TaskRecordCodec} record per task. A record is addressed by a location packing the
+ * segment, offset and length into one long, so the in-memory index needs no object per task.
+ * <p>
+ * The segments are a cache of the primary store, not a durable copy: they are wiped on start and
+ * rebuilt while the repository recovers, so they are neither synced nor checksummed. Appends,
+ * releases and compaction are serialized by the owning store; reads are positional and may run
+ * concurrently with them.
+ */
+final class ColdTaskSegments implements Closeable {
+
+    static final int MAX_RECORD_LENGTH = (1 << 16) - 1;
+    private static final int LENGTH_BITS = 16;
+    private static final int OFFSET_BITS = 28;
+    private static final long LENGTH_MASK = (1L << LENGTH_BITS) - 1;
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+    static final long DEFAULT_SEGMENT_SIZE = 64L << 20;
+    private static final String SEGMENT_PREFIX = "cold-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path dir;
+    private final long segmentSize;
+    private final Map<Integer, FileChannel> segments = new ConcurrentHashMap<>();
+    private final ByteArrayOutputStream scratch = new ByteArrayOutputStream(512);
+    private final DataOutputStream scratchOut = new DataOutputStream(scratch);
+    private int currentSegment = -1;
+    private long position;
+    private long totalBytes;
+    private long liveBytes;
+    private Set<Integer> compacting = Set.of();
+
+    ColdTaskSegments(Path dir, long segmentSize) throws IOException {
+        if (segmentSize <= 0 || segmentSize > OFFSET_MASK + 1) {
+            throw new IllegalArgumentException("Cold segment size has to be in range 1-" + (OFFSET_MASK + 1));
+        }
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.position = segmentSize;
+        Files.createDirectories(dir);
+        for (Path leftover : listSegments()) {
+            Files.delete(leftover);
+        }
+    }
+
+    /** Appends the task and returns its location, or -1 when the record is too large for a location. */
+    long append(Task task) {
+        try {
+            scratch.reset();
+            TaskRecordCodec.write(task, scratchOut);
+            int length = scratch.size();
+            if (length > MAX_RECORD_LENGTH) {
+                return -1;
+            }
+            if (position + length > segmentSize) {
+                openSegment(currentSegment + 1);
+            }
+            long offset = position;
+            writeRecord(ByteBuffer.wrap(scratch.toByteArray()), offset);
+            position += length;
+            totalBytes += length;
+            liveBytes += length;
+            return ((long) currentSegment << (OFFSET_BITS + LENGTH_BITS)) | (offset << LENGTH_BITS) | length;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the task at the location. Throws {@link IOException} when the segment was dropped by a
+     * compaction meanwhile, the caller then looks the task's location up again.
+     */
+    Task read(long location) throws IOException {
+        int segment = segment(location);
+        long offset = (location >>> LENGTH_BITS) & OFFSET_MASK;
+        ByteBuffer record = ByteBuffer.allocate((int) (location & LENGTH_MASK));
+        while (true) {
+            FileChannel channel = segments.get(segment);
+            if (channel == null) {
+                throw new IOException("Cold segment was compacted");
+            }
+            try {
+                while (record.hasRemaining()) {
+                    if (channel.read(record, offset + record.position()) < 0) {
+                        throw new EOFException("Truncated cold record");
+                    }
+                }
+                return TaskRecordCodec.read(new DataInputStream(new ByteArrayInputStream(record.array())));
+            } catch (ClosedChannelException e) {
+                reopen(segment, channel);
+                if (e instanceof ClosedByInterruptException) {
+                    throw e;
+                }
+                record.clear();
+            }
+        }
+    }
+
+    /** Marks the record at the location as garbage. */
+    void release(long location) {
+        // the counters started over with the compaction, its segments are not counted any more
+        if (!compacting.contains(segment(location))) {
+            liveBytes -= location & LENGTH_MASK;
+        }
+    }
+
+    boolean needsCompaction() {
+        return compacting.isEmpty() && totalBytes >= 2 * segmentSize && liveBytes * 2 <= totalBytes;
+    }
+
+    /**
+     * Continues in a fresh segment with empty counters and returns the segments written so far;
+     * the caller appends the live tasks of those segments again and then drops them.
+     */
+    List<Integer> startCompaction() {
+        List<Integer> compacted = new ArrayList<>(segments.keySet());
+        openSegment(currentSegment + 1);
+        totalBytes = 0;
+        liveBytes = 0;
+        compacting = Set.copyOf(compacted);
+        return compacted;
+    }
+
+    void drop(List<Integer> compacted) {
+        for (int segment : compacted) {
+            closeQuietly(segments.remove(segment));
+            try {
+                Files.deleteIfExists(segmentPath(segment));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        compacting = Set.of();
+    }
+
+    void clear() {
+        drop(new ArrayList<>(segments.keySet()));
+        position = segmentSize;
+        totalBytes = 0;
+        liveBytes = 0;
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    private void writeRecord(ByteBuffer record, long offset) throws IOException {
+        while (true) {
+            FileChannel channel = segments.get(currentSegment);
+            try {
+                while (record.hasRemaining()) {
+                    channel.write(record, offset + record.position());
+                }
+                return;
+            } catch (ClosedChannelException e) {
+                reopen(currentSegment, channel);
+                if (e instanceof ClosedByInterruptException) {
+                    throw e;
+                }
+                record.rewind();
+            }
+        }
+    }
+
+    /**
+     * File channels are interruptible: a thread interrupted during a read closes the channel for
+     * every thread. Replaces the closed channel unless the segment was dropped meanwhile.
+     */
+    private void reopen(int segment, FileChannel closed) throws IOException {
+        if (segments.get(segment) != closed) {
+            return;
+        }
+        FileChannel reopened = FileChannel.open(segmentPath(segment), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (!segments.replace(segment, closed, reopened)) {
+            reopened.close();
+        }
+    }
+
+    private void openSegment(int segment) {
+        try {
+            segments.put(segment, FileChannel.open(segmentPath(segment),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE));
+            currentSegment = segment;
+            position = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static int segment(long location) {
+        return (int) (location >>> (OFFSET_BITS + LENGTH_BITS));
+    }
+
+    private Path segmentPath(int segment) {
+        return dir.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).toList();
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // the segment is deleted right after, nothing is lost
+        }
+    }
+}
@@ -1,26 +1,83 @@
 package com.havranek.todolist.repository;
 
 import com.havranek.todolist.exceptions.EntityNotFound;
+import com.havranek.todolist.exceptions.PersistenceFailed;
+import com.havranek.todolist.exceptions.ReadOnlyReplica;
+import com.havranek.todolist.exceptions.VersionConflict;
 import com.havranek.todolist.model.entity.Status;
 import com.havranek.todolist.model.entity.Task;
-import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
-@Component
+/**
+ * Lock-free reads over immutable {@link StoredTask} snapshots; writers are serialized by one lock.
+ * Every save stores a new snapshot with the next version, a save carrying a stale version is
+ * rejected with {@link VersionConflict}. Every write is also published to a {@link TaskChangeFeed}.
+ * A follower of a replication leader rejects writes with {@link ReadOnlyReplica}; it only takes the
+ * leader's writes through {@link #applyReplicated(Consumer)}. Once the write-ahead log failed,
+ * writes are refused with {@link PersistenceFailed} before they change anything, until restart.
+ */
 public class DbInMemory implements Repository{
 
-    private final TreeMap<Long, Task> taskDb = new TreeMap<>();
-    private final AtomicLong safeIdGenerator = new AtomicLong();
+    private static final int DEFAULT_CHANGE_CAPACITY = 1 << 16;
+
+    private final TaskStore taskDb;
+    private final ConcurrentSkipListMap<LocalDate, Integer> solvedPerDay = new ConcurrentSkipListMap<>();
+    private final AtomicLongArray tasksPerStatus = new AtomicLongArray(Status.values().length);
+    private final EnumMap<Status, ConcurrentSkipListSet<Long>> idsByStatus = new EnumMap<>(Status.class);
+    private final ConcurrentSkipListMap<LocalDate, ConcurrentSkipListSet<Long>> idsByDeadline = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<LocalDate, ConcurrentSkipListSet<Long>> idsByFinished = new ConcurrentSkipListMap<>();
+    private final TaskSearchIndex searchIndex = new TaskSearchIndex();
+    private final TaskColumns columns = new TaskColumns();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicLong safeIdGenerator = new AtomicLong(1);
+    private final TaskPersistence persistence;
+    private final TaskChangeFeed changes;
+    private volatile long taskCount;
+    private volatile boolean replica;
 
     public DbInMemory() {
-        setData();
-        setLastId();
+        this(new HeapTaskStore(), Optional.empty());
+    }
+
+    public DbInMemory(TaskStore taskStore, Optional<TaskPersistence> persistence) {
+        this(taskStore, persistence, DEFAULT_CHANGE_CAPACITY);
+    }
+
+    public DbInMemory(TaskStore taskStore, Optional<TaskPersistence> persistence, int changeCapacity) {
+        this.taskDb = taskStore;
+        this.changes = new TaskChangeFeed(changeCapacity);
+        for (Status status : Status.values()){
+            idsByStatus.put(status, new ConcurrentSkipListSet<>());
+        }
+        this.persistence = persistence.orElse(null);
+        if (this.persistence == null){
+            setData();
+            setLastId();
+        } else {
+            this.persistence.recover(new Recovery(1));
+            this.persistence.scheduleSnapshots(this::snapshot);
+        }
     }
 
     @Override
@@ -30,58 +87,494 @@ public class DbInMemory implements Repository{
 
     @Override
     public List<Task> findAll() {
-        return taskDb.values().stream()
+        return taskDb.streamAfter(0)
+                .toList();
+    }
+
+    @Override
+    public Stream<Task> streamAll() {
+        return taskDb.streamAfter(0);
+    }
+
+    @Override
+    public List<Task> findPage(long offset, int limit) {
+        return taskDb.streamAfter(0)
+                .skip(offset)
+                .limit(limit)
                 .toList();
     }
 
+    @Override
+    public List<Task> findAfter(long afterId, int limit) {
+        return taskDb.streamAfter(afterId)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<Task> findFiltered(TaskFilter filter, long offset, int limit) {
+        return filtered(filter)
+                .skip(offset)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public long countFiltered(TaskFilter filter) {
+        if (filter.isEmpty()){
+            return taskCount;
+        }
+        if (!filter.hasDeadlineRange() && !filter.hasFinishedRange()){
+            return filter.statuses().stream()
+                    .mapToLong(this::countByStatus)
+                    .sum();
+        }
+        return filtered(filter).count();
+    }
+
+    @Override
+    public Stream<Task> streamFiltered(TaskFilter filter) {
+        return filtered(filter);
+    }
+
+    @Override
+    public TaskSearchResult search(String query, long offset, int limit) {
+        long[] ranked = searchIndex.search(query);
+        List<Task> page = Arrays.stream(ranked)
+                .skip(offset)
+                .limit(limit)
+                .mapToObj(taskDb::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new TaskSearchResult(page, ranked.length);
+    }
+
+    @Override
+    public long count() {
+        return taskCount;
+    }
+
+    @Override
+    public long countByStatus(Status status) {
+        return tasksPerStatus.get(status.ordinal());
+    }
+
+    @Override
+    public long modificationCount() {
+        return changes.lastSequence();
+    }
+
+    @Override
+    public TaskChanges findChangesAfter(long sequence, int limit) {
+        return changes.readAfter(sequence, limit);
+    }
+
     @Override
     public Task save(Task task) {
-        if (task.getId() > 0 && taskDb.containsKey(task.getId())){
-            taskDb.replace(task.getId(), task);
-        } else {
-            long dbId = safeIdGenerator.getAndIncrement();
-            task.setId(dbId);
-            taskDb.put(dbId, task);
+        checkWritable();
+        StoredTask stored;
+        long sequence;
+        writeLock.lock();
+        try {
+            stored = saveLocked(task);
+            sequence = logSave(stored);
+        } finally {
+            writeLock.unlock();
         }
-        return task;
+        awaitDurable(sequence);
+        return stored;
     }
 
     @Override
-    public int findSolvedTaskPerDay(LocalDate date) {
-        return (int) taskDb.values().stream()
-                .filter(task -> date.equals(task.getFinished()) &&
-                        task.getStatus() == Status.COMPLETED)
-                .count();
+    public List<Task> saveAll(List<Task> tasks) {
+        checkWritable();
+        List<Task> saved = new ArrayList<>(tasks.size());
+        long sequence = 0;
+        writeLock.lock();
+        try {
+            // versions are checked up front, so a conflict leaves the whole batch unsaved
+            for (Task task : tasks){
+                if (!matchesVersion(task, storedVersion(task))){
+                    throw new VersionConflict();
+                }
+            }
+            for (Task task : tasks){
+                StoredTask stored = saveLocked(task);
+                sequence = logSave(stored);
+                saved.add(stored);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        awaitDurable(sequence);
+        return saved;
     }
 
     @Override
-    public TreeMap<LocalDate, Integer> findSolvedThrewDays() {
-        TreeMap<LocalDate,Integer> summaryMap = new TreeMap<>();
-        for (var task : taskDb.values()){
-            if (task.getFinished() != null && task.getStatus().equals(Status.COMPLETED)){
-                if (summaryMap.containsKey(task.getFinished())){
-                    summaryMap.put(task.getFinished(), summaryMap.get(task.getFinished()) + 1);
-                } else {
-                    summaryMap.put(task.getFinished(), 1);
+    public List<Task> updateExisting(List<Task> tasks) {
+        checkWritable();
+        List<Task> updated = new ArrayList<>(tasks.size());
+        long sequence = 0;
+        writeLock.lock();
+        try {
+            for (Task task : tasks){
+                long currentVersion = storedVersion(task);
+                if (currentVersion != 0 && matchesVersion(task, currentVersion)){
+                    StoredTask stored = StoredTask.of(task, task.getId(), currentVersion + 1);
+                    putTask(stored);
+                    sequence = logSave(stored);
+                    updated.add(stored);
                 }
             }
+        } finally {
+            writeLock.unlock();
         }
-        return summaryMap;
+        awaitDurable(sequence);
+        return updated;
+    }
+
+    @Override
+    public int findSolvedTaskPerDay(LocalDate date) {
+        return solvedPerDay.getOrDefault(date, 0);
+    }
+
+    @Override
+    public TreeMap<LocalDate, Integer> findSolvedThrewDays() {
+        return new TreeMap<>(solvedPerDay);
+    }
+
+    @Override
+    public StatusCounts countCreatedByStatus(LocalDate from, LocalDate to) {
+        return columns.countCreatedByStatus(from, to);
+    }
+
+    @Override
+    public LeadTime sumLeadTime(LocalDate from, LocalDate to) {
+        return columns.sumLeadTime(from, to);
+    }
+
+    @Override
+    public DeadlineOutcomes countDeadlineOutcomes(LocalDate from, LocalDate to, LocalDate today) {
+        return columns.countDeadlineOutcomes(from, to, today);
     }
 
     @Override
     public void deleteById(long id) {
-        if (taskDb.get(id) == null){
-            throw new EntityNotFound();
+        checkWritable();
+        long sequence;
+        writeLock.lock();
+        try {
+            if (removeTask(id) == null){
+                throw new EntityNotFound();
+            }
+            sequence = persistence == null ? 0 : persistence.logDelete(id);
+        } finally {
+            writeLock.unlock();
         }
-        taskDb.remove(id);
+        awaitDurable(sequence);
+    }
+
+    @Override
+    public Set<Long> deleteAllById(Collection<Long> ids) {
+        checkWritable();
+        Set<Long> deleted = new HashSet<>();
+        long sequence = 0;
+        writeLock.lock();
+        try {
+            for (Long id : ids){
+                if (removeTask(id) != null){
+                    deleted.add(id);
+                    sequence = persistence == null ? 0 : persistence.logDelete(id);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        awaitDurable(sequence);
+        return deleted;
     }
 
     @Override
     public void clearDb() {
+        checkWritable();
+        long sequence;
+        writeLock.lock();
+        try {
+            clearTasks();
+            safeIdGenerator.set(1);
+            sequence = persistence == null ? 0 : persistence.logClear();
+        } finally {
+            writeLock.unlock();
+        }
+        awaitDurable(sequence);
+    }
+
+    /**
+     * Fuzzy snapshot without the write lock: every write logged before the new segment was applied
+     * here first, so the store streamed after the rotation holds it, and an id taken before the
+     * rotation is below the next id read after it. Writes streamed along are replayed again.
+     */
+    void snapshot() {
+        long segment = persistence.startSnapshot();
+        long nextId = safeIdGenerator.get();
+        try (Stream<Task> tasks = taskDb.streamAfter(0)) {
+            persistence.writeSnapshot(segment, nextId, tasks);
+        }
+    }
+
+    /** From now on only the replication leader writes to this store. */
+    void followLeader() {
+        replica = true;
+    }
+
+    /** Writes after the sequence with their stored tasks, null when the change feed no longer has all of them. */
+    List<TaskChangeFeed.Mutation> mutationsAfter(long sequence, int limit) {
+        return changes.readMutationsAfter(sequence, limit);
+    }
+
+    /**
+     * All tasks in id order, streamed without the write lock. Every write published to the change feed
+     * before the call is in the stream, writes made meanwhile may or may not be.
+     */
+    Stream<Task> streamTasks() {
+        return taskDb.streamAfter(0);
+    }
+
+    /** Id the next new task gets, above every id stored before the call. */
+    long nextId() {
+        return safeIdGenerator.get();
+    }
+
+    /**
+     * Applies writes replicated from the leader in one write section through the same target as
+     * recovery, so tasks keep the leader's ids and versions. They are not logged to local persistence.
+     */
+    void applyReplicated(Consumer<TaskReplayTarget> writes) {
+        writeLock.lock();
+        try {
+            writes.accept(new Recovery(safeIdGenerator.get()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void checkWritable() {
+        if (replica){
+            throw new ReadOnlyReplica();
+        }
+        if (persistence != null && persistence.failed()){
+            throw new PersistenceFailed(null);
+        }
+    }
+
+    private StoredTask saveLocked(Task task) {
+        long currentVersion = storedVersion(task);
+        if (!matchesVersion(task, currentVersion)){
+            throw new VersionConflict();
+        }
+        StoredTask stored = currentVersion == 0
+                ? StoredTask.of(task, safeIdGenerator.getAndIncrement(), 1)
+                : StoredTask.of(task, task.getId(), currentVersion + 1);
+        putTask(stored);
+        return stored;
+    }
+
+    /** Version of the stored task with the same id, 0 when it is new. */
+    private long storedVersion(Task task) {
+        return task.getId() > 0 ? taskDb.version(task.getId()) : 0;
+    }
+
+    /** Version 0 saves unconditionally, any other has to be the stored one. */
+    private static boolean matchesVersion(Task task, long currentVersion) {
+        return task.getVersion() == 0 || task.getVersion() == currentVersion;
+    }
+
+    private void putTask(StoredTask task) {
+        Task previous = taskDb.put(task);
+        if (previous == null){
+            taskCount++;
+        }
+        updateSolvedIndex(previous, task);
+        updateSecondaryIndexes(previous, task);
+        changes.publish(previous == null ? TaskChangeType.CREATED : TaskChangeType.UPDATED, task.getId(),
+                previous == null ? null : previous.getStatus(), task.getStatus(), task);
+    }
+
+    private Task removeTask(long id) {
+        Task removed = taskDb.remove(id);
+        if (removed != null){
+            taskCount--;
+            updateSolvedIndex(removed, null);
+            updateSecondaryIndexes(removed, null);
+            changes.publish(TaskChangeType.DELETED, id, removed.getStatus(), null, null);
+        }
+        return removed;
+    }
+
+    private void clearTasks() {
         taskDb.clear();
-        safeIdGenerator.set(1);
+        solvedPerDay.clear();
+        for (int i = 0; i < tasksPerStatus.length(); i++){
+            tasksPerStatus.set(i, 0);
+        }
+        idsByStatus.values().forEach(ConcurrentSkipListSet::clear);
+        idsByDeadline.clear();
+        idsByFinished.clear();
+        searchIndex.clear();
+        columns.clear();
+        taskCount = 0;
+        changes.publish(TaskChangeType.CLEARED, 0, null, null, null);
+    }
+
+    private long logSave(Task task) {
+        return persistence == null ? 0 : persistence.logSave(task);
+    }
+
+    private void awaitDurable(long sequence) {
+        if (persistence != null && sequence > 0){
+            persistence.awaitDurable(sequence);
+        }
+    }
+
+    private void updateSolvedIndex(Task previous, Task current) {
+        LocalDate solvedBefore = solvedDay(previous);
+        LocalDate solvedAfter = solvedDay(current);
+        if (Objects.equals(solvedBefore, solvedAfter)){
+            return;
+        }
+        if (solvedBefore != null){
+            solvedPerDay.computeIfPresent(solvedBefore, (day, count) -> count > 1 ? count - 1 : null);
+        }
+        if (solvedAfter != null){
+            solvedPerDay.merge(solvedAfter, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Filtered tasks in id order. The smallest index that applies drives the query, the rest of the
+     * filter is checked on the task itself, which also skips entries a concurrent write just moved.
+     */
+    private Stream<Task> filtered(TaskFilter filter) {
+        if (filter.isEmpty()){
+            return taskDb.streamAfter(0);
+        }
+        long statusEstimate = Long.MAX_VALUE;
+        if (filter.statuses() != null){
+            statusEstimate = filter.statuses().stream()
+                    .mapToLong(this::countByStatus)
+                    .sum();
+        }
+
+        long[] ids = null;
+        if (filter.hasDeadlineRange()){
+            ids = idsInRange(idsByDeadline, filter.deadlineFrom(), filter.deadlineTo(), statusEstimate);
+        }
+        if (ids == null && filter.hasFinishedRange()){
+            ids = idsInRange(idsByFinished, filter.finishedFrom(), filter.finishedTo(), statusEstimate);
+        }
+
+        LongStream candidates;
+        if (ids != null){
+            candidates = Arrays.stream(ids).distinct();
+        } else if (filter.statuses() != null){
+            candidates = idsWithStatus(filter.statuses());
+        } else {
+            return taskDb.streamAfter(0).filter(filter::matches);
+        }
+        return candidates
+                .mapToObj(taskDb::get)
+                .filter(task -> task != null && filter.matches(task));
+    }
+
+    /** Sorted ids in the date range, or null once there are more than limit of them. */
+    private static long[] idsInRange(ConcurrentSkipListMap<LocalDate, ConcurrentSkipListSet<Long>> index,
+                                     LocalDate from, LocalDate to, long limit) {
+        long[] ids = new long[16];
+        int size = 0;
+        for (ConcurrentSkipListSet<Long> day : dateRange(index, from, to).values()){
+            for (Long id : day){
+                if (size >= limit){
+                    return null;
+                }
+                if (size == ids.length){
+                    ids = Arrays.copyOf(ids, size * 2);
+                }
+                ids[size++] = id;
+            }
+        }
+        ids = Arrays.copyOf(ids, size);
+        Arrays.sort(ids);
+        return ids;
+    }
 
+    private static NavigableMap<LocalDate, ConcurrentSkipListSet<Long>> dateRange(
+            ConcurrentSkipListMap<LocalDate, ConcurrentSkipListSet<Long>> index, LocalDate from, LocalDate to) {
+        if (from != null && to != null){
+            return from.isAfter(to) ? new ConcurrentSkipListMap<>() : index.subMap(from, true, to, true);
+        }
+        return from != null ? index.tailMap(from, true) : index.headMap(to, true);
+    }
+
+    private LongStream idsWithStatus(Set<Status> statuses) {
+        if (statuses.size() == 1){
+            return idsByStatus.get(statuses.iterator().next()).stream()
+                    .mapToLong(Long::longValue);
+        }
+        return statuses.stream()
+                .flatMap(status -> idsByStatus.get(status).stream())
+                .mapToLong(Long::longValue)
+                .sorted();
+    }
+
+    private void updateSecondaryIndexes(Task previous, Task current) {
+        long id = previous != null ? previous.getId() : current.getId();
+        Status statusBefore = previous == null ? null : previous.getStatus();
+        Status statusAfter = current == null ? null : current.getStatus();
+        if (statusBefore != statusAfter){
+            if (statusBefore != null){
+                tasksPerStatus.decrementAndGet(statusBefore.ordinal());
+                idsByStatus.get(statusBefore).remove(id);
+            }
+            if (statusAfter != null){
+                tasksPerStatus.incrementAndGet(statusAfter.ordinal());
+                idsByStatus.get(statusAfter).add(id);
+            }
+        }
+        moveInDateIndex(idsByDeadline, id,
+                previous == null ? null : previous.getDeadline(),
+                current == null ? null : current.getDeadline());
+        moveInDateIndex(idsByFinished, id,
+                previous == null ? null : previous.getFinished(),
+                current == null ? null : current.getFinished());
+        searchIndex.update(id, previous, current);
+        if (current == null){
+            columns.remove(id);
+        } else {
+            columns.put(current);
+        }
+    }
+
+    private static void moveInDateIndex(ConcurrentSkipListMap<LocalDate, ConcurrentSkipListSet<Long>> index,
+                                        long id, LocalDate before, LocalDate after) {
+        if (Objects.equals(before, after)){
+            return;
+        }
+        if (before != null){
+            index.computeIfPresent(before, (day, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+        if (after != null){
+            index.computeIfAbsent(after, day -> new ConcurrentSkipListSet<>()).add(id);
+        }
+    }
+
+    private static LocalDate solvedDay(Task task) {
+        if (task == null || task.getStatus() != Status.COMPLETED){
+            return null;
+        }
+        return task.getFinished();
     }
 
     private void setData(){
@@ -115,12 +608,45 @@ public class DbInMemory implements Repository{
                 task.setDescription(null);
             }
 
-            taskDb.put(i, task);
+            putTask(StoredTask.of(task, i, 1));
         }
     }
 
     private void setLastId(){
-        long lastDbKey = taskDb.lastKey();
+        long lastDbKey = taskDb.lastId();
         safeIdGenerator.set(lastDbKey+1);
     }
+
+    private final class Recovery implements TaskReplayTarget {
+
+        private long nextId;
+
+        private Recovery(long nextId) {
+            this.nextId = nextId;
+        }
+
+        @Override
+        public void restoreNextId(long nextId) {
+            this.nextId = nextId;
+            safeIdGenerator.set(nextId);
+        }
+
+        @Override
+        public void replaySave(Task task) {
+            putTask(StoredTask.of(task));
+            nextId = Math.max(nextId, task.getId() + 1);
+            safeIdGenerator.set(nextId);
+        }
+
+        @Override
+        public void replayDelete(long id) {
+            removeTask(id);
+        }
+
+        @Override
+        public void replayClear() {
+            clearTasks();
+            restoreNextId(1);
+        }
+    }
 }
@@ -0,0 +1,8 @@
+package com.havranek.todolist.repository;
+
+/** Number of tasks due and how many of them missed the deadline. */
+public record DeadlineOutcomes(
+        long due,
+        long missed
+) {
+}
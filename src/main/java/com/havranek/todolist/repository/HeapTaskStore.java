@@ -0,0 +1,80 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Task;
+
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Tasks on the heap in a {@link TaskIdMap} keyed by primitive ids, with the ids also kept in sorted
+ * {@link IdPostings} for listing in id order. Readers take the current postings and look the tasks
+ * up one by one, skipping ids whose task was removed meanwhile.
+ */
+public class HeapTaskStore implements TaskStore {
+
+    private final TaskIdMap tasks = new TaskIdMap();
+    private volatile IdPostings ids = IdPostings.EMPTY;
+
+    @Override
+    public Task get(long id) {
+        return tasks.get(id);
+    }
+
+    @Override
+    public boolean contains(long id) {
+        return tasks.get(id) != null;
+    }
+
+    @Override
+    public long version(long id) {
+        Task task = tasks.get(id);
+        return task == null ? 0 : task.getVersion();
+    }
+
+    @Override
+    public Task put(Task task) {
+        Task previous = tasks.put(task.getId(), task);
+        if (previous == null) {
+            ids = ids.with(task.getId());
+        }
+        return previous;
+    }
+
+    @Override
+    public Task remove(long id) {
+        Task removed = tasks.remove(id);
+        if (removed != null) {
+            ids = ids.without(id);
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        ids = IdPostings.EMPTY;
+        tasks.clear();
+    }
+
+    @Override
+    public Stream<Task> streamAfter(long afterId) {
+        return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(idsAfter(afterId),
+                        Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false)
+                .mapToObj(tasks::get)
+                .filter(Objects::nonNull);
+    }
+
+    /** Ids greater than afterId stored at the time of the call, in ascending order. */
+    PrimitiveIterator.OfLong idsAfter(long afterId) {
+        return ids.iteratorAfter(afterId);
+    }
+
+    @Override
+    public long lastId() {
+        IdPostings current = ids;
+        return current.isEmpty() ? 0 : current.last();
+    }
+}
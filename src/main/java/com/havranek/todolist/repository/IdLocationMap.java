@@ -0,0 +1,143 @@
+package com.havranek.todolist.repository;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Cold task locations by id in an open-addressing table of primitive {@code long} keys and values,
+ * the same layout as {@link TaskIdMap}: two arrays and no object per entry. Ids must be positive and
+ * locations non-zero, key 0 marks a free slot and location 0 a missing entry.
+ * <p>
+ * One writer at a time (the owning store serializes writes), any number of lock-free readers. A new
+ * entry publishes its location before its key; removing clears only the location and leaves the key
+ * as a tombstone until the table is rebuilt, which publishes a new table and never changes the old one.
+ */
+final class IdLocationMap {
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final long FREE = 0;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+    private static final int MIN_CAPACITY = 16;
+
+    private volatile Table table = new Table(MIN_CAPACITY);
+    private int size;
+    private int used;
+
+    int size() {
+        return size;
+    }
+
+    /** Location of the id, 0 when there is none. */
+    long get(long id) {
+        Table current = table;
+        long[] keys = current.keys;
+        int slot = current.slot(id);
+        while (true) {
+            long key = (long) SLOTS.getAcquire(keys, slot);
+            if (key == id) {
+                return (long) SLOTS.getAcquire(current.locations, slot);
+            }
+            if (key == FREE) {
+                return 0;
+            }
+            slot = (slot + 1) & current.mask;
+        }
+    }
+
+    /** Stores the location and returns the one it replaced, or 0. */
+    long put(long id, long location) {
+        if (id <= 0 || location == 0) {
+            throw new IllegalArgumentException("Cold entry needs a positive id and a location: " + id);
+        }
+        Table current = table;
+        int slot = find(current, id);
+        if (current.keys[slot] == id) {
+            long previous = current.locations[slot];
+            SLOTS.setRelease(current.locations, slot, location);
+            if (previous == 0) {
+                size++;
+            }
+            return previous;
+        }
+        if (used + 1 > current.threshold) {
+            current = rebuild(size + 1);
+            slot = find(current, id);
+        }
+        SLOTS.setRelease(current.locations, slot, location);
+        SLOTS.setRelease(current.keys, slot, id);
+        used++;
+        size++;
+        return 0;
+    }
+
+    /** Returns the removed location, or 0 when there was none. */
+    long remove(long id) {
+        Table current = table;
+        int slot = find(current, id);
+        if (current.keys[slot] != id) {
+            return 0;
+        }
+        long previous = current.locations[slot];
+        if (previous != 0) {
+            SLOTS.setRelease(current.locations, slot, 0L);
+            size--;
+        }
+        return previous;
+    }
+
+    void clear() {
+        table = new Table(MIN_CAPACITY);
+        size = 0;
+        used = 0;
+    }
+
+    /** Slot holding the id, or the free slot ending its probe chain. */
+    private static int find(Table table, long id) {
+        int slot = table.slot(id);
+        while (table.keys[slot] != id && table.keys[slot] != FREE) {
+            slot = (slot + 1) & table.mask;
+        }
+        return slot;
+    }
+
+    /** Copies the live entries into a table sized for twice as many and publishes it. */
+    private Table rebuild(int liveEntries) {
+        Table old = table;
+        Table rebuilt = new Table(Math.max(MIN_CAPACITY, Integer.highestOneBit(liveEntries * 2 - 1) << 1));
+        for (int i = 0; i < old.keys.length; i++) {
+            long location = old.locations[i];
+            if (location != 0) {
+                int slot = find(rebuilt, old.keys[i]);
+                rebuilt.keys[slot] = old.keys[i];
+                rebuilt.locations[slot] = location;
+            }
+        }
+        // the entry being added is counted in by the caller
+        used = size;
+        table = rebuilt;
+        return rebuilt;
+    }
+
+    private static final class Table {
+
+        private final long[] keys;
+        private final long[] locations;
+        private final int mask;
+        private final int shift;
+        private final int threshold;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.locations = new long[capacity];
+            this.mask = capacity - 1;
+            this.shift = 64 - Integer.numberOfTrailingZeros(capacity);
+            // at most three quarters full, tombstones included, so every probe chain ends at a free slot
+            this.threshold = capacity - capacity / 4;
+        }
+
+        /** Fibonacci hashing, sequential ids spread over the whole table. */
+        private int slot(long id) {
+            return (int) ((id * GOLDEN_RATIO) >>> shift);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.havranek.todolist.repository;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Immutable sorted set of task ids: sealed blocks of {@value #BLOCK_SIZE} longs plus an open tail block.
+ * <p>
+ * New ids almost always arrive in increasing order, so appending writes into the shared tail array
+ * past the length older instances can see and is O(1) amortized; the tail doubles until it is a full
+ * block and only every {@value #BLOCK_SIZE}th append copies the block directory. Inserting or
+ * removing elsewhere copies one block and the directory. Readers keep using the instance they got
+ * while the (single) writer publishes new ones; a writer must always derive from the latest instance.
+ */
+final class IdPostings {
+
+    static final IdPostings EMPTY = new IdPostings(new long[0][], new long[0], 0, 0);
+    private static final int BLOCK_SIZE = 256;
+    private static final int MIN_TAIL_CAPACITY = 2;
+
+    private final long[][] blocks;
+    private final long[] tail;
+    private final int tailLength;
+    private final int size;
+
+    private IdPostings(long[][] blocks, long[] tail, int tailLength, int size) {
+        this.blocks = blocks;
+        this.tail = tail;
+        this.tailLength = tailLength;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(long id) {
+        if (inTail(id)) {
+            return Arrays.binarySearch(tail, 0, tailLength, id) >= 0;
+        }
+        int block = blockFor(id);
+        return block >= 0 && Arrays.binarySearch(blocks[block], id) >= 0;
+    }
+
+    void forEach(LongConsumer consumer) {
+        for (long[] block : blocks) {
+            for (long id : block) {
+                consumer.accept(id);
+            }
+        }
+        for (int i = 0; i < tailLength; i++) {
+            consumer.accept(tail[i]);
+        }
+    }
+
+    /** Highest id, the postings must not be empty. */
+    long last() {
+        if (tailLength > 0) {
+            return tail[tailLength - 1];
+        }
+        if (blocks.length == 0) {
+            throw new NoSuchElementException();
+        }
+        return lastSealedId();
+    }
+
+    /** Ids greater than afterId in ascending order. */
+    PrimitiveIterator.OfLong iteratorAfter(long afterId) {
+        return new AfterIterator(afterId);
+    }
+
+    IdPostings with(long id) {
+        if (inTail(id)) {
+            return withInTail(id);
+        }
+        int blockIndex = Math.max(blockFor(id), 0);
+        long[] block = blocks[blockIndex];
+        int position = Arrays.binarySearch(block, id);
+        if (position >= 0) {
+            return this;
+        }
+        long[] inserted = insert(block, block.length, -position - 1, id);
+        if (inserted.length <= BLOCK_SIZE) {
+            return new IdPostings(replace(blocks, blockIndex, inserted), tail, tailLength, size + 1);
+        }
+        int half = inserted.length / 2;
+        long[][] split = new long[blocks.length + 1][];
+        System.arraycopy(blocks, 0, split, 0, blockIndex);
+        split[blockIndex] = Arrays.copyOfRange(inserted, 0, half);
+        split[blockIndex + 1] = Arrays.copyOfRange(inserted, half, inserted.length);
+        System.arraycopy(blocks, blockIndex + 1, split, blockIndex + 2, blocks.length - blockIndex - 1);
+        return new IdPostings(split, tail, tailLength, size + 1);
+    }
+
+    IdPostings without(long id) {
+        if (inTail(id)) {
+            int position = Arrays.binarySearch(tail, 0, tailLength, id);
+            if (position < 0) {
+                return this;
+            }
+            long[] removed = new long[tail.length];
+            System.arraycopy(tail, 0, removed, 0, position);
+            System.arraycopy(tail, position + 1, removed, position, tailLength - position - 1);
+            return new IdPostings(blocks, removed, tailLength - 1, size - 1);
+        }
+        int blockIndex = blockFor(id);
+        if (blockIndex < 0) {
+            return this;
+        }
+        long[] block = blocks[blockIndex];
+        int position = Arrays.binarySearch(block, id);
+        if (position < 0) {
+            return this;
+        }
+        if (block.length == 1) {
+            long[][] shrunk = new long[blocks.length - 1][];
+            System.arraycopy(blocks, 0, shrunk, 0, blockIndex);
+            System.arraycopy(blocks, blockIndex + 1, shrunk, blockIndex, blocks.length - blockIndex - 1);
+            return new IdPostings(shrunk, tail, tailLength, size - 1);
+        }
+        long[] removed = new long[block.length - 1];
+        System.arraycopy(block, 0, removed, 0, position);
+        System.arraycopy(block, position + 1, removed, position, block.length - position - 1);
+        return new IdPostings(replace(blocks, blockIndex, removed), tail, tailLength, size - 1);
+    }
+
+    private IdPostings withInTail(long id) {
+        if (tailLength == 0 || id > tail[tailLength - 1]) {
+            if (tailLength < tail.length) {
+                // older instances never read past their own tailLength
+                tail[tailLength] = id;
+                return new IdPostings(blocks, tail, tailLength + 1, size + 1);
+            }
+            if (tailLength < BLOCK_SIZE) {
+                long[] grown = Arrays.copyOf(tail, grownCapacity(tailLength + 1));
+                grown[tailLength] = id;
+                return new IdPostings(blocks, grown, tailLength + 1, size + 1);
+            }
+            long[] next = new long[MIN_TAIL_CAPACITY];
+            next[0] = id;
+            return new IdPostings(seal(tail), next, 1, size + 1);
+        }
+        int position = Arrays.binarySearch(tail, 0, tailLength, id);
+        if (position >= 0) {
+            return this;
+        }
+        long[] inserted = insert(tail, tailLength, -position - 1, id);
+        if (inserted.length <= BLOCK_SIZE) {
+            return new IdPostings(blocks, Arrays.copyOf(inserted, grownCapacity(inserted.length)), inserted.length, size + 1);
+        }
+        long[] next = new long[MIN_TAIL_CAPACITY];
+        next[0] = inserted[BLOCK_SIZE];
+        return new IdPostings(seal(Arrays.copyOf(inserted, BLOCK_SIZE)), next, 1, size + 1);
+    }
+
+    /** Tails double up to a full block, most tokens occur in a handful of tasks only. */
+    private static int grownCapacity(int needed) {
+        return Math.min(BLOCK_SIZE, Math.max(MIN_TAIL_CAPACITY, Integer.highestOneBit(needed - 1) << 1));
+    }
+
+    private boolean inTail(long id) {
+        return blocks.length == 0 || id > lastSealedId();
+    }
+
+    private long lastSealedId() {
+        long[] last = blocks[blocks.length - 1];
+        return last[last.length - 1];
+    }
+
+    private long[][] seal(long[] block) {
+        long[][] grown = Arrays.copyOf(blocks, blocks.length + 1);
+        grown[blocks.length] = block;
+        return grown;
+    }
+
+    /** Index of the last sealed block starting at or before id, -1 when id is below every block. */
+    private int blockFor(long id) {
+        int low = 0;
+        int high = blocks.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (blocks[middle][0] <= id) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    /** Position of the first id greater than the given one. */
+    private static int positionAfter(long[] ids, int length, long id) {
+        int position = Arrays.binarySearch(ids, 0, length, id);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    private static long[] insert(long[] source, int length, int position, long id) {
+        long[] inserted = new long[length + 1];
+        System.arraycopy(source, 0, inserted, 0, position);
+        inserted[position] = id;
+        System.arraycopy(source, position, inserted, position + 1, length - position);
+        return inserted;
+    }
+
+    private static long[][] replace(long[][] blocks, int index, long[] block) {
+        long[][] replaced = blocks.clone();
+        replaced[index] = block;
+        return replaced;
+    }
+
+    /** Walks the sealed blocks, then the tail up to the length this instance sees. */
+    private final class AfterIterator implements PrimitiveIterator.OfLong {
+
+        private int block;
+        private int position;
+
+        private AfterIterator(long afterId) {
+            if (inTail(afterId)) {
+                block = blocks.length;
+                position = positionAfter(tail, tailLength, afterId);
+            } else {
+                block = Math.max(blockFor(afterId), 0);
+                position = positionAfter(blocks[block], blocks[block].length, afterId);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (block < blocks.length && position == blocks[block].length) {
+                block++;
+                position = 0;
+            }
+            return block < blocks.length || position < tailLength;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return block < blocks.length ? blocks[block][position++] : tail[position++];
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.havranek.todolist.repository;
+
+/** Number of completed tasks and the sum of their lead times in days. */
+public record LeadTime(
+        long completed,
+        long totalDays
+) {
+}
@@ -0,0 +1,342 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Times every {@link Repository} call into a {@code todolist.repository} histogram tagged by method
+ * and publishes store size gauges. Timers are created up front, so a call costs two
+ * {@code nanoTime} reads and a histogram update.
+ */
+public class MeteredRepository implements Repository {
+
+    private final Repository delegate;
+    private final Timer findById;
+    private final Timer findAll;
+    private final Timer streamAll;
+    private final Timer findPage;
+    private final Timer findAfter;
+    private final Timer findFiltered;
+    private final Timer countFiltered;
+    private final Timer streamFiltered;
+    private final Timer search;
+    private final Timer count;
+    private final Timer countByStatus;
+    private final Timer modificationCount;
+    private final Timer findChangesAfter;
+    private final Timer save;
+    private final Timer saveAll;
+    private final Timer updateExisting;
+    private final Timer findSolvedTaskPerDay;
+    private final Timer findSolvedThrewDays;
+    private final Timer countCreatedByStatus;
+    private final Timer sumLeadTime;
+    private final Timer countDeadlineOutcomes;
+    private final Timer deleteById;
+    private final Timer deleteAllById;
+    private final Timer clearDb;
+
+    public MeteredRepository(Repository delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.findById = timer(registry, "findById");
+        this.findAll = timer(registry, "findAll");
+        this.streamAll = timer(registry, "streamAll");
+        this.findPage = timer(registry, "findPage");
+        this.findAfter = timer(registry, "findAfter");
+        this.findFiltered = timer(registry, "findFiltered");
+        this.countFiltered = timer(registry, "countFiltered");
+        this.streamFiltered = timer(registry, "streamFiltered");
+        this.search = timer(registry, "search");
+        this.count = timer(registry, "count");
+        this.countByStatus = timer(registry, "countByStatus");
+        this.modificationCount = timer(registry, "modificationCount");
+        this.findChangesAfter = timer(registry, "findChangesAfter");
+        this.save = timer(registry, "save");
+        this.saveAll = timer(registry, "saveAll");
+        this.updateExisting = timer(registry, "updateExisting");
+        this.findSolvedTaskPerDay = timer(registry, "findSolvedTaskPerDay");
+        this.findSolvedThrewDays = timer(registry, "findSolvedThrewDays");
+        this.countCreatedByStatus = timer(registry, "countCreatedByStatus");
+        this.sumLeadTime = timer(registry, "sumLeadTime");
+        this.countDeadlineOutcomes = timer(registry, "countDeadlineOutcomes");
+        this.deleteById = timer(registry, "deleteById");
+        this.deleteAllById = timer(registry, "deleteAllById");
+        this.clearDb = timer(registry, "clearDb");
+
+        Gauge.builder("todolist.store.size", delegate, Repository::count)
+                .description("Tasks in the store")
+                .register(registry);
+        for (Status status : Status.values()) {
+            Gauge.builder("todolist.store.tasks", delegate, repository -> repository.countByStatus(status))
+                    .description("Tasks in the store by status")
+                    .tag("status", status.name())
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public Optional<Task> findById(long id) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findById(id);
+        } finally {
+            stop(findById, start);
+        }
+    }
+
+    @Override
+    public List<Task> findAll() {
+        long start = System.nanoTime();
+        try {
+            return delegate.findAll();
+        } finally {
+            stop(findAll, start);
+        }
+    }
+
+    @Override
+    public Stream<Task> streamAll() {
+        // only opening the stream is timed, consumers read it at their own pace
+        long start = System.nanoTime();
+        try {
+            return delegate.streamAll();
+        } finally {
+            stop(streamAll, start);
+        }
+    }
+
+    @Override
+    public List<Task> findPage(long offset, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findPage(offset, limit);
+        } finally {
+            stop(findPage, start);
+        }
+    }
+
+    @Override
+    public List<Task> findAfter(long afterId, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findAfter(afterId, limit);
+        } finally {
+            stop(findAfter, start);
+        }
+    }
+
+    @Override
+    public List<Task> findFiltered(TaskFilter filter, long offset, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findFiltered(filter, offset, limit);
+        } finally {
+            stop(findFiltered, start);
+        }
+    }
+
+    @Override
+    public long countFiltered(TaskFilter filter) {
+        long start = System.nanoTime();
+        try {
+            return delegate.countFiltered(filter);
+        } finally {
+            stop(countFiltered, start);
+        }
+    }
+
+    @Override
+    public Stream<Task> streamFiltered(TaskFilter filter) {
+        // like streamAll, only opening the stream is timed
+        long start = System.nanoTime();
+        try {
+            return delegate.streamFiltered(filter);
+        } finally {
+            stop(streamFiltered, start);
+        }
+    }
+
+    @Override
+    public TaskSearchResult search(String query, long offset, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.search(query, offset, limit);
+        } finally {
+            stop(search, start);
+        }
+    }
+
+    @Override
+    public long count() {
+        long start = System.nanoTime();
+        try {
+            return delegate.count();
+        } finally {
+            stop(count, start);
+        }
+    }
+
+    @Override
+    public long countByStatus(Status status) {
+        long start = System.nanoTime();
+        try {
+            return delegate.countByStatus(status);
+        } finally {
+            stop(countByStatus, start);
+        }
+    }
+
+    @Override
+    public long modificationCount() {
+        long start = System.nanoTime();
+        try {
+            return delegate.modificationCount();
+        } finally {
+            stop(modificationCount, start);
+        }
+    }
+
+    @Override
+    public TaskChanges findChangesAfter(long sequence, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findChangesAfter(sequence, limit);
+        } finally {
+            stop(findChangesAfter, start);
+        }
+    }
+
+    @Override
+    public Task save(Task task) {
+        long start = System.nanoTime();
+        try {
+            return delegate.save(task);
+        } finally {
+            stop(save, start);
+        }
+    }
+
+    @Override
+    public List<Task> saveAll(List<Task> tasks) {
+        long start = System.nanoTime();
+        try {
+            return delegate.saveAll(tasks);
+        } finally {
+            stop(saveAll, start);
+        }
+    }
+
+    @Override
+    public List<Task> updateExisting(List<Task> tasks) {
+        long start = System.nanoTime();
+        try {
+            return delegate.updateExisting(tasks);
+        } finally {
+            stop(updateExisting, start);
+        }
+    }
+
+    @Override
+    public int findSolvedTaskPerDay(LocalDate date) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findSolvedTaskPerDay(date);
+        } finally {
+            stop(findSolvedTaskPerDay, start);
+        }
+    }
+
+    @Override
+    public TreeMap<LocalDate, Integer> findSolvedThrewDays() {
+        long start = System.nanoTime();
+        try {
+            return delegate.findSolvedThrewDays();
+        } finally {
+            stop(findSolvedThrewDays, start);
+        }
+    }
+
+    @Override
+    public StatusCounts countCreatedByStatus(LocalDate from, LocalDate to) {
+        long start = System.nanoTime();
+        try {
+            return delegate.countCreatedByStatus(from, to);
+        } finally {
+            stop(countCreatedByStatus, start);
+        }
+    }
+
+    @Override
+    public LeadTime sumLeadTime(LocalDate from, LocalDate to) {
+        long start = System.nanoTime();
+        try {
+            return delegate.sumLeadTime(from, to);
+        } finally {
+            stop(sumLeadTime, start);
+        }
+    }
+
+    @Override
+    public DeadlineOutcomes countDeadlineOutcomes(LocalDate from, LocalDate to, LocalDate today) {
+        long start = System.nanoTime();
+        try {
+            return delegate.countDeadlineOutcomes(from, to, today);
+        } finally {
+            stop(countDeadlineOutcomes, start);
+        }
+    }
+
+    @Override
+    public void deleteById(long id) {
+        long start = System.nanoTime();
+        try {
+            delegate.deleteById(id);
+        } finally {
+            stop(deleteById, start);
+        }
+    }
+
+    @Override
+    public Set<Long> deleteAllById(Collection<Long> ids) {
+        long start = System.nanoTime();
+        try {
+            return delegate.deleteAllById(ids);
+        } finally {
+            stop(deleteAllById, start);
+        }
+    }
+
+    @Override
+    public void clearDb() {
+        long start = System.nanoTime();
+        try {
+            delegate.clearDb();
+        } finally {
+            stop(clearDb, start);
+        }
+    }
+
+    private static Timer timer(MeterRegistry registry, String method) {
+        return Timer.builder("todolist.repository")
+                .description("Repository call latency")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static void stop(Timer timer, long start) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
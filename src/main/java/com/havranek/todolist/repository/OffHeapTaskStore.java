@@ -0,0 +1,334 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Task;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Keeps tasks in direct (off-heap) buffers instead of {@link Task} objects, so millions of tasks
+ * cost the GC almost nothing. Every task is a fixed 56 byte record - dates as epoch days, status as
+ * a byte - and titles and descriptions live in a separate string slab. An id indexes straight into
+ * a slot table holding the record number, so {@link #get(long)} is two buffer reads plus decoding.
+ * <p>
+ * Records and strings are never overwritten. A save appends a new record and repoints the slot with
+ * a release store, so readers need no lock and always see a complete record. Once at least half of
+ * the records or string bytes are garbage, the live tasks are copied into a fresh generation and the
+ * old buffers are left to the GC; readers still holding the old generation keep reading it safely.
+ * <p>
+ * The copy is incremental: every following write copies the next chunk of ids and also applies
+ * itself to the fresh generation when its id was copied already, so no single write pays for the
+ * whole store. The fresh generation replaces the current one once the copy reaches the highest id.
+ */
+public class OffHeapTaskStore implements TaskStore {
+
+    static final int RECORD_SIZE = 56;
+    private static final int ID = 0;
+    private static final int STATUS = 8;
+    private static final int CREATED = 12;
+    private static final int DEADLINE = 16;
+    private static final int FINISHED = 20;
+    private static final int TITLE_REF = 24;
+    private static final int TITLE_LENGTH = 32;
+    private static final int DESCRIPTION_LENGTH = 36;
+    private static final int DESCRIPTION_REF = 40;
+    private static final int VERSION = 48;
+    private static final int NULL_STRING = -1;
+
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+    private static final int SLAB_CHUNK_SIZE = 1 << 20;
+    private static final long MIN_COMPACTION_RECORDS = 1 << CHUNK_SHIFT;
+    private static final long MIN_COMPACTION_STRING_BYTES = 4L * SLAB_CHUNK_SIZE;
+    static final int DEFAULT_COMPACTION_CHUNK = 1024;
+
+    private static final VarHandle SLOT = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final int compactionChunk;
+    private volatile Generation generation = new Generation();
+    // written by the serialized writer only: the generation being filled and the last id copied to it
+    private Generation compacting;
+    private long compactedUpTo;
+
+    public OffHeapTaskStore() {
+        this(DEFAULT_COMPACTION_CHUNK);
+    }
+
+    OffHeapTaskStore(int compactionChunk) {
+        if (compactionChunk < 1) {
+            throw new IllegalArgumentException("Compaction chunk has to be positive");
+        }
+        this.compactionChunk = compactionChunk;
+    }
+
+    @Override
+    public Task get(long id) {
+        return read(generation, id);
+    }
+
+    @Override
+    public boolean contains(long id) {
+        return slot(generation, id) != 0;
+    }
+
+    @Override
+    public long version(long id) {
+        Generation current = generation;
+        long slot = slot(current, id);
+        if (slot == 0) {
+            return 0;
+        }
+        long recordNumber = slot - 1;
+        return current.records[(int) (recordNumber >>> CHUNK_SHIFT)].getLong(recordBase(recordNumber) + VERSION);
+    }
+
+    @Override
+    public Task put(Task task) {
+        Generation current = generation;
+        Task previous = store(current, task);
+        if (compacting != null && task.getId() <= compactedUpTo) {
+            store(compacting, task);
+        }
+        compactStep(current);
+        return previous;
+    }
+
+    @Override
+    public Task remove(long id) {
+        Generation current = generation;
+        Task removed = delete(current, id);
+        if (removed != null) {
+            if (compacting != null && id <= compactedUpTo) {
+                delete(compacting, id);
+            }
+            compactStep(current);
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        compacting = null;
+        generation = new Generation();
+    }
+
+    @Override
+    public Stream<Task> streamAfter(long afterId) {
+        Generation current = generation;
+        return LongStream.rangeClosed(Math.max(afterId, 0) + 1, current.highestId)
+                .mapToObj(id -> read(current, id))
+                .filter(Objects::nonNull);
+    }
+
+    @Override
+    public long lastId() {
+        Generation current = generation;
+        for (long id = current.highestId; id > 0; id--) {
+            if (slot(current, id) != 0) {
+                return id;
+            }
+        }
+        return 0;
+    }
+
+    private static Task read(Generation generation, long id) {
+        long slot = slot(generation, id);
+        if (slot == 0) {
+            return null;
+        }
+        long recordNumber = slot - 1;
+        ByteBuffer records = generation.records[(int) (recordNumber >>> CHUNK_SHIFT)];
+        int base = recordBase(recordNumber);
+        return new StoredTask(
+                records.getLong(base + ID),
+                readString(generation, records.getLong(base + TITLE_REF), records.getInt(base + TITLE_LENGTH)),
+                TaskRecordCodec.decodeStatus(records.get(base + STATUS)),
+                TaskRecordCodec.decodeDate(records.getInt(base + CREATED)),
+                TaskRecordCodec.decodeDate(records.getInt(base + DEADLINE)),
+                TaskRecordCodec.decodeDate(records.getInt(base + FINISHED)),
+                readString(generation, records.getLong(base + DESCRIPTION_REF), records.getInt(base + DESCRIPTION_LENGTH)),
+                records.getLong(base + VERSION)
+        );
+    }
+
+    private static long slot(Generation generation, long id) {
+        if (id <= 0) {
+            return 0;
+        }
+        ByteBuffer[] slots = generation.slots;
+        long chunk = id >>> CHUNK_SHIFT;
+        if (chunk >= slots.length) {
+            return 0;
+        }
+        return (long) SLOT.getAcquire(slots[(int) chunk], slotOffset(id));
+    }
+
+    private static int recordBase(long recordNumber) {
+        return (int) (recordNumber & CHUNK_MASK) * RECORD_SIZE;
+    }
+
+    private static int slotOffset(long id) {
+        return (int) (id & CHUNK_MASK) * Long.BYTES;
+    }
+
+    private static Task store(Generation generation, Task task) {
+        Task previous = read(generation, task.getId());
+        append(generation, task);
+        if (previous == null) {
+            generation.liveRecords++;
+        } else {
+            generation.liveStringBytes -= stringBytes(previous);
+        }
+        return previous;
+    }
+
+    private static Task delete(Generation generation, long id) {
+        Task removed = read(generation, id);
+        if (removed != null) {
+            SLOT.setRelease(generation.slots[(int) (id >>> CHUNK_SHIFT)], slotOffset(id), 0L);
+            generation.liveRecords--;
+            generation.liveStringBytes -= stringBytes(removed);
+        }
+        return removed;
+    }
+
+    private static void append(Generation generation, Task task) {
+        byte[] title = encode(task.getTitle());
+        byte[] description = encode(task.getDescription());
+        long titleRef = writeString(generation, title);
+        long descriptionRef = writeString(generation, description);
+
+        long recordNumber = generation.recordCount++;
+        int chunk = (int) (recordNumber >>> CHUNK_SHIFT);
+        if (chunk == generation.records.length) {
+            generation.records = grow(generation.records, RECORD_SIZE << CHUNK_SHIFT);
+        }
+        ByteBuffer records = generation.records[chunk];
+        int base = recordBase(recordNumber);
+        records.putLong(base + ID, task.getId());
+        records.put(base + STATUS, TaskRecordCodec.encodeStatus(task.getStatus()));
+        records.putInt(base + CREATED, TaskRecordCodec.encodeDate(task.getCreated()));
+        records.putInt(base + DEADLINE, TaskRecordCodec.encodeDate(task.getDeadline()));
+        records.putInt(base + FINISHED, TaskRecordCodec.encodeDate(task.getFinished()));
+        records.putLong(base + TITLE_REF, titleRef);
+        records.putInt(base + TITLE_LENGTH, title == null ? NULL_STRING : title.length);
+        records.putLong(base + DESCRIPTION_REF, descriptionRef);
+        records.putInt(base + DESCRIPTION_LENGTH, description == null ? NULL_STRING : description.length);
+        records.putLong(base + VERSION, task.getVersion());
+
+        long id = task.getId();
+        int slotChunk = (int) (id >>> CHUNK_SHIFT);
+        while (slotChunk >= generation.slots.length) {
+            generation.slots = grow(generation.slots, Long.BYTES << CHUNK_SHIFT);
+        }
+        // the record and any new chunk arrays are published by this release store
+        SLOT.setRelease(generation.slots[slotChunk], slotOffset(id), recordNumber + 1);
+        if (id > generation.highestId) {
+            generation.highestId = id;
+        }
+    }
+
+    private static long writeString(Generation generation, byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return 0;
+        }
+        ByteBuffer[] strings = generation.strings;
+        int chunk = strings.length - 1;
+        if (chunk < 0 || generation.slabPosition + bytes.length > strings[chunk].capacity()) {
+            generation.strings = grow(strings, Math.max(SLAB_CHUNK_SIZE, bytes.length));
+            chunk++;
+            generation.slabPosition = 0;
+        }
+        int position = generation.slabPosition;
+        generation.strings[chunk].put(position, bytes);
+        generation.slabPosition += bytes.length;
+        generation.stringBytes += bytes.length;
+        generation.liveStringBytes += bytes.length;
+        return ((long) chunk << 32) | position;
+    }
+
+    private static String readString(Generation generation, long ref, int length) {
+        if (length == NULL_STRING) {
+            return null;
+        }
+        if (length == 0) {
+            return "";
+        }
+        byte[] bytes = new byte[length];
+        generation.strings[(int) (ref >>> 32)].get((int) ref, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long stringBytes(Task task) {
+        return encodedLength(task.getTitle()) + encodedLength(task.getDescription());
+    }
+
+    private static long encodedLength(String value) {
+        return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static ByteBuffer[] grow(ByteBuffer[] chunks, int chunkSize) {
+        ByteBuffer[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+        grown[chunks.length] = ByteBuffer.allocateDirect(chunkSize).order(ByteOrder.nativeOrder());
+        return grown;
+    }
+
+    /** Copies the next chunk of ids to the fresh generation, starting a compaction when it is due. */
+    private void compactStep(Generation current) {
+        if (compacting == null) {
+            if (!needsCompaction(current)) {
+                return;
+            }
+            compacting = new Generation();
+            compactedUpTo = 0;
+        }
+        long end = Math.min(compactedUpTo + compactionChunk, current.highestId);
+        for (long id = compactedUpTo + 1; id <= end; id++) {
+            Task task = read(current, id);
+            if (task != null) {
+                store(compacting, task);
+            }
+        }
+        compactedUpTo = end;
+        if (compactedUpTo >= current.highestId) {
+            generation = compacting;
+            compacting = null;
+        }
+    }
+
+    private static boolean needsCompaction(Generation current) {
+        boolean recordGarbage = current.recordCount >= MIN_COMPACTION_RECORDS
+                && current.liveRecords * 2 <= current.recordCount;
+        boolean stringGarbage = current.stringBytes >= MIN_COMPACTION_STRING_BYTES
+                && current.liveStringBytes * 2 <= current.stringBytes;
+        return recordGarbage || stringGarbage;
+    }
+
+    /**
+     * One set of buffers. Counters are only touched by the (serialized) writer; the chunk arrays
+     * are replaced, never modified, so a reader always sees a consistent array.
+     */
+    private static final class Generation {
+
+        private volatile ByteBuffer[] slots = new ByteBuffer[0];
+        private volatile ByteBuffer[] records = new ByteBuffer[0];
+        private volatile ByteBuffer[] strings = new ByteBuffer[0];
+        private volatile long highestId;
+        private long recordCount;
+        private long liveRecords;
+        private int slabPosition;
+        private long stringBytes;
+        private long liveStringBytes;
+    }
+}
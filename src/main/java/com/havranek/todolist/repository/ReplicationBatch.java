@@ -0,0 +1,13 @@
+package com.havranek.todolist.repository;
+
+/**
+ * One batch a follower applied: the leader run it came from, the leader's change sequence the follower
+ * is now at, the leader's latest sequence when it sent the batch and whether it was a full copy.
+ */
+public record ReplicationBatch(String leaderInstance, long sequence, long leaderSequence, boolean snapshot) {
+
+    /** Sequences the follower is still behind the leader as of this batch. */
+    public long lag() {
+        return leaderSequence - sequence;
+    }
+}
@@ -1,11 +1,15 @@
 package com.havranek.todolist.repository;
 
+import com.havranek.todolist.model.entity.Status;
 import com.havranek.todolist.model.entity.Task;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.stream.Stream;
 
 public interface Repository {
 
@@ -13,13 +17,65 @@ public interface Repository {
 
     List<Task> findAll();
 
+    Stream<Task> streamAll();
+
+    List<Task> findPage(long offset, int limit);
+
+    List<Task> findAfter(long afterId, int limit);
+
+    List<Task> findFiltered(TaskFilter filter, long offset, int limit);
+
+    long countFiltered(TaskFilter filter);
+
+    Stream<Task> streamFiltered(TaskFilter filter);
+
+    TaskSearchResult search(String query, long offset, int limit);
+
+    long count();
+
+    long countByStatus(Status status);
+
+    /** Counts every write, including {@link #clearDb()}; it never goes back while the store lives. */
+    long modificationCount();
+
+    /**
+     * Up to limit writes that came after the given sequence, oldest first. The sequence of a
+     * change is the {@link #modificationCount()} right after it; only the latest changes are kept.
+     */
+    TaskChanges findChangesAfter(long sequence, int limit);
+
+    /**
+     * Stores a copy of the task and returns it with its id and new version. A task with a non-zero
+     * version is only saved over that version, otherwise {@link com.havranek.todolist.exceptions.VersionConflict}.
+     */
     Task save(Task task);
 
+    /** Like {@link #save(Task)} for every task; on a version conflict none of them is saved. */
+    List<Task> saveAll(List<Task> tasks);
+
+    /**
+     * Saves the tasks that already exist and whose version still matches in one write section and
+     * returns the stored copies, the rest are skipped.
+     */
+    List<Task> updateExisting(List<Task> tasks);
+
     int findSolvedTaskPerDay(LocalDate date);
 
     TreeMap<LocalDate, Integer> findSolvedThrewDays();
 
+    /** Tasks created in the range by status, null bounds are open. */
+    StatusCounts countCreatedByStatus(LocalDate from, LocalDate to);
+
+    /** Completed tasks finished in the range and the sum of their lead times in days. */
+    LeadTime sumLeadTime(LocalDate from, LocalDate to);
+
+    /** Tasks due in the range and how many of them were not completed by their deadline as of today. */
+    DeadlineOutcomes countDeadlineOutcomes(LocalDate from, LocalDate to, LocalDate today);
+
     void deleteById(long id);
 
+    /** Deletes the tasks in one write section and returns the ids that existed. */
+    Set<Long> deleteAllById(Collection<Long> ids);
+
     void clearDb();
 }
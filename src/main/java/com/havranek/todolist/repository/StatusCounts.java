@@ -0,0 +1,12 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Status;
+
+import java.util.Map;
+
+/** Task count by status; the total also counts tasks without a status. */
+public record StatusCounts(
+        long total,
+        Map<Status, Long> byStatus
+) {
+}
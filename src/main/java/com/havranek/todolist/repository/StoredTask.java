@@ -0,0 +1,72 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+
+import java.time.LocalDate;
+
+/**
+ * The task as held by a {@link TaskStore}: an immutable copy with its assigned id and version.
+ * Readers share these instances without locking, so every setter throws; a change is saved as
+ * a new task, which the repository copies into a new snapshot.
+ */
+final class StoredTask extends Task {
+
+    StoredTask(long id, String title, Status status, LocalDate created, LocalDate deadline, LocalDate finished,
+               String description, long version) {
+        super(id, title, status, created, deadline, finished, description, version);
+    }
+
+    static StoredTask of(Task task, long id, long version) {
+        return new StoredTask(id, task.getTitle(), task.getStatus(), task.getCreated(), task.getDeadline(),
+                task.getFinished(), task.getDescription(), version);
+    }
+
+    static StoredTask of(Task task) {
+        return task instanceof StoredTask stored ? stored : of(task, task.getId(), task.getVersion());
+    }
+
+    @Override
+    public void setId(long id) {
+        throw immutable();
+    }
+
+    @Override
+    public void setTitle(String title) {
+        throw immutable();
+    }
+
+    @Override
+    public void setStatus(Status status) {
+        throw immutable();
+    }
+
+    @Override
+    public void setCreated(LocalDate created) {
+        throw immutable();
+    }
+
+    @Override
+    public void setDeadline(LocalDate deadline) {
+        throw immutable();
+    }
+
+    @Override
+    public void setFinished(LocalDate finished) {
+        throw immutable();
+    }
+
+    @Override
+    public void setDescription(String description) {
+        throw immutable();
+    }
+
+    @Override
+    public void setVersion(long version) {
+        throw immutable();
+    }
+
+    private static UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException("Stored tasks are immutable, save a changed copy instead");
+    }
+}
@@ -0,0 +1,13 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Status;
+
+/** One write to the store; id is 0 and both statuses are null for {@link TaskChangeType#CLEARED}. */
+public record TaskChange(
+        long sequence,
+        long id,
+        TaskChangeType type,
+        Status statusBefore,
+        Status statusAfter
+) {
+}
@@ -0,0 +1,140 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded ring of the latest store changes, numbered by a sequence starting at 1. The single writer
+ * ({@link DbInMemory} under its write lock) packs a change into one long and stores it with three
+ * volatile writes, no lock and no allocation. Readers never block the writer: a slot is stamped with
+ * its sequence, which the writer clears before overwriting the slot, so a reader that raced the
+ * writer sees the stamp change and stops instead of returning a torn change.
+ * <p>
+ * A save also keeps a reference to the stored task, which is immutable, so the ring doubles as the
+ * ordered mutation log followers replicate from at the cost of one pointer per slot.
+ */
+final class TaskChangeFeed {
+
+    private static final int ID_BITS = 48;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+    private static final int STATUS_BITS = 3;
+    private static final int STATUS_MASK = (1 << STATUS_BITS) - 1;
+    private static final TaskChangeType[] TYPES = TaskChangeType.values();
+    private static final Status[] STATUSES = Status.values();
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicLongArray stamps;
+    private final AtomicLongArray changes;
+    private final AtomicReferenceArray<Task> tasks;
+    private volatile long lastSequence;
+
+    TaskChangeFeed(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Change feed capacity has to be a power of two");
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.stamps = new AtomicLongArray(capacity);
+        this.changes = new AtomicLongArray(capacity);
+        this.tasks = new AtomicReferenceArray<>(capacity);
+    }
+
+    /** Only called by the one thread holding the repository write lock. */
+    void publish(TaskChangeType type, long id, Status before, Status after, Task stored) {
+        long sequence = lastSequence + 1;
+        int slot = (int) (sequence & mask);
+        stamps.set(slot, 0);
+        changes.set(slot, pack(type, id, before, after));
+        tasks.set(slot, stored);
+        stamps.set(slot, sequence);
+        lastSequence = sequence;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    TaskChanges readAfter(long afterSequence, int limit) {
+        long last = lastSequence;
+        long oldest = Math.max(1, last - capacity + 1);
+        boolean gap = afterSequence + 1 < oldest || afterSequence > last;
+        long from = gap ? oldest : afterSequence + 1;
+
+        List<TaskChange> read = new ArrayList<>((int) Math.min(limit, last - from + 1));
+        for (long sequence = from; sequence <= last && read.size() < limit; sequence++) {
+            int slot = (int) (sequence & mask);
+            if (stamps.get(slot) != sequence) {
+                break;
+            }
+            long packed = changes.get(slot);
+            if (stamps.get(slot) != sequence) {
+                // overwritten meanwhile, the next read reports the gap
+                break;
+            }
+            read.add(unpack(sequence, packed));
+        }
+        return new TaskChanges(read, gap);
+    }
+
+    /**
+     * Up to limit writes after the given sequence with the task each save stored, oldest first, or
+     * null when some of them were already overwritten and only a full copy can catch up.
+     */
+    List<Mutation> readMutationsAfter(long afterSequence, int limit) {
+        long last = lastSequence;
+        long oldest = Math.max(1, last - capacity + 1);
+        if (afterSequence + 1 < oldest || afterSequence > last) {
+            return null;
+        }
+
+        List<Mutation> read = new ArrayList<>((int) Math.min(limit, last - afterSequence));
+        for (long sequence = afterSequence + 1; sequence <= last && read.size() < limit; sequence++) {
+            int slot = (int) (sequence & mask);
+            if (stamps.get(slot) != sequence) {
+                return read.isEmpty() ? null : read;
+            }
+            long packed = changes.get(slot);
+            Task task = tasks.get(slot);
+            if (stamps.get(slot) != sequence) {
+                return read.isEmpty() ? null : read;
+            }
+            read.add(new Mutation(sequence, TYPES[(int) (packed >>> (ID_BITS + 2 * STATUS_BITS))], packed & ID_MASK, task));
+        }
+        return read;
+    }
+
+    private static long pack(TaskChangeType type, long id, Status before, Status after) {
+        return ((long) type.ordinal() << (ID_BITS + 2 * STATUS_BITS))
+                | ((long) statusCode(before) << (ID_BITS + STATUS_BITS))
+                | ((long) statusCode(after) << ID_BITS)
+                | (id & ID_MASK);
+    }
+
+    private static TaskChange unpack(long sequence, long packed) {
+        return new TaskChange(
+                sequence,
+                packed & ID_MASK,
+                TYPES[(int) (packed >>> (ID_BITS + 2 * STATUS_BITS))],
+                status((int) (packed >>> (ID_BITS + STATUS_BITS)) & STATUS_MASK),
+                status((int) (packed >>> ID_BITS) & STATUS_MASK)
+        );
+    }
+
+    private static int statusCode(Status status) {
+        return status == null ? 0 : status.ordinal() + 1;
+    }
+
+    private static Status status(int code) {
+        return code == 0 ? null : STATUSES[code - 1];
+    }
+
+    /** One write as replicated: the task is the stored copy for creates and updates, null otherwise. */
+    record Mutation(long sequence, TaskChangeType type, long id, Task task) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.havranek.todolist.repository;
+
+public enum TaskChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    CLEARED
+}
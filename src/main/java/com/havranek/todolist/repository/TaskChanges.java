@@ -0,0 +1,13 @@
+package com.havranek.todolist.repository;
+
+import java.util.List;
+
+/**
+ * Changes read from the feed. gap is set when changes the reader asked for were already
+ * overwritten, the list then starts with the oldest change still kept.
+ */
+public record TaskChanges(
+        List<TaskChange> changes,
+        boolean gap
+) {
+}
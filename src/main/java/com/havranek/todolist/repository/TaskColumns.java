@@ -0,0 +1,269 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BinaryOperator;
+
+/**
+ * Column copy of the fields the statistics read: created, deadline and finished as epoch days in
+ * {@code int[]} columns and the status in a {@code byte[]} column, one row per task id. Ids come from
+ * the repository's sequence, so they are dense enough to be row numbers. Aggregations are single
+ * passes over primitive arrays without touching a {@link Task}, which keeps them in the millisecond
+ * range for tens of millions of tasks and lets the JIT unroll and vectorize the branch-free loops.
+ * <p>
+ * Kept up to date by {@link DbInMemory} under its write lock. Every chunk of 4096 rows has its own
+ * lock: a write locks only the chunk of its row, queries read each chunk optimistically and scan
+ * again just the chunks a write got into, after a few tries under that chunk's read lock. A writer
+ * so waits for one chunk scan at most, and a result never mixes old and new fields of a row, though
+ * chunks read at different moments may see different writes. Growing and clearing publish new
+ * arrays and leave the ones a running query holds untouched.
+ */
+final class TaskColumns {
+
+    private static final int NO_DAY = Integer.MIN_VALUE;
+    private static final byte EMPTY = 0;
+    private static final byte NO_STATUS = 1;
+    private static final byte COMPLETED = code(Status.COMPLETED);
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int CHUNK_SHIFT = 12;
+    private static final int CHUNK_ROWS = 1 << CHUNK_SHIFT;
+    private static final int OPTIMISTIC_ATTEMPTS = 3;
+
+    private volatile Columns columns = new Columns(INITIAL_CAPACITY);
+    private volatile int rows;
+
+    void put(Task task) {
+        int row = Math.toIntExact(task.getId());
+        Columns current = columns;
+        if (row >= current.capacity()) {
+            current = grow(current, row + 1);
+        }
+        StampedLock chunkLock = current.chunkLock(row);
+        long stamp = chunkLock.writeLock();
+        try {
+            current.created[row] = epochDay(task.getCreated());
+            current.deadline[row] = epochDay(task.getDeadline());
+            current.finished[row] = epochDay(task.getFinished());
+            current.status[row] = task.getStatus() == null ? NO_STATUS : code(task.getStatus());
+        } finally {
+            chunkLock.unlockWrite(stamp);
+        }
+        if (row >= rows) {
+            rows = row + 1;
+        }
+    }
+
+    void remove(long id) {
+        if (id >= rows) {
+            return;
+        }
+        int row = (int) id;
+        Columns current = columns;
+        StampedLock chunkLock = current.chunkLock(row);
+        long stamp = chunkLock.writeLock();
+        try {
+            current.created[row] = NO_DAY;
+            current.deadline[row] = NO_DAY;
+            current.finished[row] = NO_DAY;
+            current.status[row] = EMPTY;
+        } finally {
+            chunkLock.unlockWrite(stamp);
+        }
+    }
+
+    void clear() {
+        rows = 0;
+        columns = new Columns(INITIAL_CAPACITY);
+    }
+
+    /** Tasks created in the range by status; null bounds are open, with no bounds at all tasks without a created date count too. */
+    StatusCounts countCreatedByStatus(LocalDate from, LocalDate to) {
+        int low = from == null && to == null ? NO_DAY : lowBound(from);
+        int high = highBound(to);
+        long[] counts = scanChunks(new long[8], (columns, start, end) -> countByStatusCode(columns, start, end, low, high),
+                (left, right) -> {
+                    for (int code = 0; code < left.length; code++) {
+                        left[code] += right[code];
+                    }
+                    return left;
+                });
+        Map<Status, Long> byStatus = new EnumMap<>(Status.class);
+        long total = counts[NO_STATUS];
+        for (Status value : Status.values()) {
+            byStatus.put(value, counts[code(value)]);
+            total += counts[code(value)];
+        }
+        return new StatusCounts(total, byStatus);
+    }
+
+    /** Completed tasks finished in the range and the sum of their lead times (finished - created) in days. */
+    LeadTime sumLeadTime(LocalDate from, LocalDate to) {
+        int low = lowBound(from);
+        int high = highBound(to);
+        return scanChunks(new LeadTime(0, 0), (columns, start, end) -> scanLeadTime(columns, start, end, low, high),
+                (left, right) -> new LeadTime(left.completed() + right.completed(), left.totalDays() + right.totalDays()));
+    }
+
+    /**
+     * Tasks due in the range and how many of them missed the deadline: completed after it, or not
+     * completed while the deadline is already before today.
+     */
+    DeadlineOutcomes countDeadlineOutcomes(LocalDate from, LocalDate to, LocalDate today) {
+        int low = lowBound(from);
+        int high = highBound(to);
+        int todayDay = epochDay(today);
+        return scanChunks(new DeadlineOutcomes(0, 0), (columns, start, end) -> scanDeadlines(columns, start, end, low, high, todayDay),
+                (left, right) -> new DeadlineOutcomes(left.due() + right.due(), left.missed() + right.missed()));
+    }
+
+    private <T> T scanChunks(T empty, ChunkScan<T> scan, BinaryOperator<T> merge) {
+        // rows before columns: a grow is published before the rows that need it
+        int length = rows;
+        Columns current = columns;
+        length = Math.min(length, current.capacity());
+        T result = empty;
+        for (int start = 0; start < length; start += CHUNK_ROWS) {
+            result = merge.apply(result, scanChunk(current, start, Math.min(length, start + CHUNK_ROWS), scan));
+        }
+        return result;
+    }
+
+    private static <T> T scanChunk(Columns columns, int start, int end, ChunkScan<T> scan) {
+        StampedLock chunkLock = columns.chunkLock(start);
+        for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+            long stamp = chunkLock.tryOptimisticRead();
+            if (stamp != 0) {
+                T part = scan.scan(columns, start, end);
+                if (chunkLock.validate(stamp)) {
+                    return part;
+                }
+            }
+        }
+        long stamp = chunkLock.readLock();
+        try {
+            return scan.scan(columns, start, end);
+        } finally {
+            chunkLock.unlockRead(stamp);
+        }
+    }
+
+    private static long[] countByStatusCode(Columns columns, int start, int end, int low, int high) {
+        // an optimistic pass may see a row mid-write, the code mask keeps it in the counts
+        int[] createdColumn = columns.created;
+        byte[] statusColumn = columns.status;
+        long[] counts = new long[8];
+        for (int row = start; row < end; row++) {
+            int day = createdColumn[row];
+            counts[statusColumn[row] & 7] += day >= low & day <= high ? 1 : 0;
+        }
+        return counts;
+    }
+
+    private static LeadTime scanLeadTime(Columns columns, int start, int end, int low, int high) {
+        int[] createdColumn = columns.created;
+        int[] finishedColumn = columns.finished;
+        byte[] statusColumn = columns.status;
+        long completed = 0;
+        long totalDays = 0;
+        for (int row = start; row < end; row++) {
+            int day = finishedColumn[row];
+            int created = createdColumn[row];
+            boolean counted = statusColumn[row] == COMPLETED & day >= low & day <= high & created != NO_DAY;
+            completed += counted ? 1 : 0;
+            totalDays += counted ? day - created : 0;
+        }
+        return new LeadTime(completed, totalDays);
+    }
+
+    private static DeadlineOutcomes scanDeadlines(Columns columns, int start, int end, int low, int high, int today) {
+        int[] deadlineColumn = columns.deadline;
+        int[] finishedColumn = columns.finished;
+        byte[] statusColumn = columns.status;
+        long due = 0;
+        long missed = 0;
+        for (int row = start; row < end; row++) {
+            int day = deadlineColumn[row];
+            boolean isDue = day >= low & day <= high;
+            boolean completed = statusColumn[row] == COMPLETED;
+            // a missing finished date is NO_DAY, so a completed task without it never counts as late
+            boolean late = completed ? finishedColumn[row] > day : day < today;
+            due += isDue ? 1 : 0;
+            missed += isDue & late ? 1 : 0;
+        }
+        return new DeadlineOutcomes(due, missed);
+    }
+
+    /** Copies into larger arrays and publishes them; the old ones get no more writes. */
+    private Columns grow(Columns current, int needed) {
+        int capacity = current.capacity();
+        while (capacity < needed) {
+            capacity = capacity > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE - 8 : capacity * 2;
+        }
+        Columns grown = new Columns(capacity);
+        int copied = current.capacity();
+        System.arraycopy(current.created, 0, grown.created, 0, copied);
+        System.arraycopy(current.deadline, 0, grown.deadline, 0, copied);
+        System.arraycopy(current.finished, 0, grown.finished, 0, copied);
+        System.arraycopy(current.status, 0, grown.status, 0, copied);
+        columns = grown;
+        return grown;
+    }
+
+    /** Lowest matching day; NO_DAY stays below it, so tasks without the date never match a range. */
+    private static int lowBound(LocalDate from) {
+        return from == null ? NO_DAY + 1 : epochDay(from);
+    }
+
+    private static int highBound(LocalDate to) {
+        return to == null ? Integer.MAX_VALUE : epochDay(to);
+    }
+
+    private static int epochDay(LocalDate date) {
+        return date == null ? NO_DAY : Math.toIntExact(date.toEpochDay());
+    }
+
+    private static byte code(Status status) {
+        return (byte) (status.ordinal() + 2);
+    }
+
+    @FunctionalInterface
+    private interface ChunkScan<T> {
+
+        T scan(Columns columns, int start, int end);
+    }
+
+    private static final class Columns {
+
+        private final int[] created;
+        private final int[] deadline;
+        private final int[] finished;
+        private final byte[] status;
+        private final StampedLock[] chunkLocks;
+
+        private Columns(int capacity) {
+            this.created = new int[capacity];
+            this.deadline = new int[capacity];
+            this.finished = new int[capacity];
+            this.status = new byte[capacity];
+            Arrays.fill(created, NO_DAY);
+            Arrays.fill(deadline, NO_DAY);
+            Arrays.fill(finished, NO_DAY);
+            this.chunkLocks = new StampedLock[((capacity - 1) >>> CHUNK_SHIFT) + 1];
+            Arrays.setAll(chunkLocks, chunk -> new StampedLock());
+        }
+
+        private int capacity() {
+            return status.length;
+        }
+
+        private StampedLock chunkLock(int row) {
+            return chunkLocks[row >>> CHUNK_SHIFT];
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Criteria for {@link Repository#findFiltered}. A null field does not constrain the result,
+ * date ranges are inclusive.
+ */
+public record TaskFilter(
+        Set<Status> statuses,
+        LocalDate deadlineFrom,
+        LocalDate deadlineTo,
+        LocalDate finishedFrom,
+        LocalDate finishedTo
+) {
+
+    public boolean isEmpty() {
+        return statuses == null && !hasDeadlineRange() && !hasFinishedRange();
+    }
+
+    public boolean hasDeadlineRange() {
+        return deadlineFrom != null || deadlineTo != null;
+    }
+
+    public boolean hasFinishedRange() {
+        return finishedFrom != null || finishedTo != null;
+    }
+
+    public boolean matches(Task task) {
+        return (statuses == null || statuses.contains(task.getStatus()))
+                && inRange(task.getDeadline(), deadlineFrom, deadlineTo)
+                && inRange(task.getFinished(), finishedFrom, finishedTo);
+    }
+
+    private static boolean inRange(LocalDate date, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return true;
+        }
+        return date != null
+                && (from == null || !date.isBefore(from))
+                && (to == null || !date.isAfter(to));
+    }
+}
@@ -0,0 +1,144 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Task;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Tasks by id in an open-addressing table of primitive {@code long} keys with linear probing: no
+ * boxed ids and no entry objects, a lookup allocates nothing. Ids must be positive, key 0 marks a
+ * free slot.
+ * <p>
+ * One writer at a time (the store's callers serialize writes), any number of lock-free readers. A
+ * new entry publishes its task before its key, so a reader that finds the key sees the task. Removing
+ * clears only the task and leaves the key as a tombstone, so probe chains stay intact for readers; the
+ * tombstones go away when the table is rebuilt, which publishes a new table and never changes the old one.
+ */
+final class TaskIdMap {
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle TASKS = MethodHandles.arrayElementVarHandle(Task[].class);
+    private static final long FREE = 0;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+    private static final int MIN_CAPACITY = 16;
+
+    private volatile Table table = new Table(MIN_CAPACITY);
+    private int size;
+    private int used;
+
+    int size() {
+        return size;
+    }
+
+    Task get(long id) {
+        Table current = table;
+        long[] keys = current.keys;
+        int slot = current.slot(id);
+        while (true) {
+            long key = (long) KEYS.getAcquire(keys, slot);
+            if (key == id) {
+                return (Task) TASKS.getAcquire(current.tasks, slot);
+            }
+            if (key == FREE) {
+                return null;
+            }
+            slot = (slot + 1) & current.mask;
+        }
+    }
+
+    Task put(long id, Task task) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Task id must be positive: " + id);
+        }
+        Table current = table;
+        int slot = find(current, id);
+        if (current.keys[slot] == id) {
+            Task previous = current.tasks[slot];
+            TASKS.setRelease(current.tasks, slot, task);
+            if (previous == null) {
+                size++;
+            }
+            return previous;
+        }
+        if (used + 1 > current.threshold) {
+            current = rebuild(size + 1);
+            slot = find(current, id);
+        }
+        TASKS.setRelease(current.tasks, slot, task);
+        KEYS.setRelease(current.keys, slot, id);
+        used++;
+        size++;
+        return null;
+    }
+
+    Task remove(long id) {
+        Table current = table;
+        int slot = find(current, id);
+        if (current.keys[slot] != id) {
+            return null;
+        }
+        Task previous = current.tasks[slot];
+        if (previous != null) {
+            TASKS.setRelease(current.tasks, slot, null);
+            size--;
+        }
+        return previous;
+    }
+
+    void clear() {
+        table = new Table(MIN_CAPACITY);
+        size = 0;
+        used = 0;
+    }
+
+    /** Slot holding the id, or the free slot ending its probe chain. */
+    private static int find(Table table, long id) {
+        int slot = table.slot(id);
+        while (table.keys[slot] != id && table.keys[slot] != FREE) {
+            slot = (slot + 1) & table.mask;
+        }
+        return slot;
+    }
+
+    /** Copies the live entries into a table sized for twice as many and publishes it. */
+    private Table rebuild(int liveEntries) {
+        Table old = table;
+        Table rebuilt = new Table(Math.max(MIN_CAPACITY, Integer.highestOneBit(liveEntries * 2 - 1) << 1));
+        for (int i = 0; i < old.keys.length; i++) {
+            Task task = old.tasks[i];
+            if (task != null) {
+                int slot = find(rebuilt, old.keys[i]);
+                rebuilt.keys[slot] = old.keys[i];
+                rebuilt.tasks[slot] = task;
+            }
+        }
+        // the entry being added is counted in by the caller
+        used = size;
+        table = rebuilt;
+        return rebuilt;
+    }
+
+    private static final class Table {
+
+        private final long[] keys;
+        private final Task[] tasks;
+        private final int mask;
+        private final int shift;
+        private final int threshold;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.tasks = new Task[capacity];
+            this.mask = capacity - 1;
+            this.shift = 64 - Integer.numberOfTrailingZeros(capacity);
+            // at most three quarters full, tombstones included, so every probe chain ends at a free slot
+            this.threshold = capacity - capacity / 4;
+        }
+
+        /** Fibonacci hashing, sequential ids spread over the whole table. */
+        private int slot(long id) {
+            return (int) ((id * GOLDEN_RATIO) >>> shift);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class TaskPersistence implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskPersistence.class);
+
+    private final TaskWriteAheadLog writeAheadLog;
+    private final TaskSnapshotStore snapshotStore;
+    private final long snapshotIntervalSeconds;
+    private final ScheduledExecutorService snapshotScheduler;
+
+    public TaskPersistence(Path dir, boolean fsync, long snapshotIntervalSeconds) throws IOException {
+        Files.createDirectories(dir);
+        this.writeAheadLog = new TaskWriteAheadLog(dir, fsync);
+        this.snapshotStore = new TaskSnapshotStore(dir);
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+        this.snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void recover(TaskReplayTarget target) {
+        try {
+            long fromSegment = snapshotStore.loadLatest(target);
+            writeAheadLog.replay(fromSegment, target);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void scheduleSnapshots(Runnable snapshot) {
+        if (snapshotIntervalSeconds <= 0) {
+            return;
+        }
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot.run();
+            } catch (RuntimeException e) {
+                log.warn("Task snapshot failed, keeping the write-ahead log", e);
+            }
+        }, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    long logSave(Task task) {
+        return writeAheadLog.appendSave(task);
+    }
+
+    long logDelete(long id) {
+        return writeAheadLog.appendDelete(id);
+    }
+
+    long logClear() {
+        return writeAheadLog.appendClear();
+    }
+
+    /** Whether the write-ahead log failed, writes are refused from then on. */
+    boolean failed() {
+        return writeAheadLog.failed();
+    }
+
+    void awaitDurable(long sequence) {
+        writeAheadLog.awaitDurable(sequence);
+    }
+
+    long startSnapshot() {
+        try {
+            return writeAheadLog.rotate();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void writeSnapshot(long segment, long nextId, Stream<Task> tasks) {
+        try {
+            snapshotStore.write(segment, nextId, tasks);
+            snapshotStore.deleteBefore(segment);
+            writeAheadLog.deleteSegmentsBefore(segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        snapshotScheduler.shutdownNow();
+        writeAheadLog.close();
+    }
+}
@@ -0,0 +1,85 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Compact binary form of a {@link Task}: dates as epoch days, status as its ordinal and
+ * strings as length-prefixed UTF-8, followed by the version. Shared by the write-ahead log and
+ * snapshots.
+ */
+final class TaskRecordCodec {
+
+    static final int NULL_DATE = Integer.MIN_VALUE;
+    static final byte NULL_STATUS = -1;
+    private static final int NULL_STRING = -1;
+    private static final Status[] STATUSES = Status.values();
+
+    private TaskRecordCodec() {
+    }
+
+    static void write(Task task, DataOutput out) throws IOException {
+        out.writeLong(task.getId());
+        out.writeByte(encodeStatus(task.getStatus()));
+        out.writeInt(encodeDate(task.getCreated()));
+        out.writeInt(encodeDate(task.getDeadline()));
+        out.writeInt(encodeDate(task.getFinished()));
+        writeString(task.getTitle(), out);
+        writeString(task.getDescription(), out);
+        out.writeLong(task.getVersion());
+    }
+
+    static Task read(DataInput in) throws IOException {
+        long id = in.readLong();
+        Status status = decodeStatus(in.readByte());
+        LocalDate created = decodeDate(in.readInt());
+        LocalDate deadline = decodeDate(in.readInt());
+        LocalDate finished = decodeDate(in.readInt());
+        String title = readString(in);
+        String description = readString(in);
+        long version = in.readLong();
+        return new StoredTask(id, title, status, created, deadline, finished, description, version);
+    }
+
+    static byte encodeStatus(Status status) {
+        return status == null ? NULL_STATUS : (byte) status.ordinal();
+    }
+
+    static Status decodeStatus(byte status) {
+        return status == NULL_STATUS ? null : STATUSES[status];
+    }
+
+    static int encodeDate(LocalDate date) {
+        return date == null ? NULL_DATE : (int) date.toEpochDay();
+    }
+
+    static LocalDate decodeDate(int epochDay) {
+        return epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static void writeString(String value, DataOutput out) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
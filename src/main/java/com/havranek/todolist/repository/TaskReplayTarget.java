@@ -0,0 +1,14 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Task;
+
+interface TaskReplayTarget {
+
+    void restoreNextId(long nextId);
+
+    void replaySave(Task task);
+
+    void replayDelete(long id);
+
+    void replayClear();
+}
@@ -0,0 +1,175 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Task;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Leader/follower log shipping of a {@link DbInMemory}. The leader's change feed is the replication
+ * log: a follower asks for the writes after the last sequence it applied and gets them in order with
+ * the stored tasks, so it keeps the leader's ids and versions. A follower that fell behind the feed,
+ * or whose sequence belongs to another run of the leader, gets a full copy instead.
+ * <p>
+ * A batch is a binary stream: the leader's instance tag and whether it is a full copy, then records in
+ * the {@link TaskRecordCodec} format and an end record with the sequence the batch brings the follower
+ * to and the leader's latest sequence. The follower reads a batch of writes whole before applying it
+ * in one write section, so a broken connection applies nothing.
+ * <p>
+ * A full copy is streamed from the leader's store without its write lock, starting from the sequence
+ * read before the stream: the copy holds every write up to it and maybe some later ones, which the
+ * follower then gets again from the change feed and applies over them. The follower applies a copy
+ * in write sections of batch size tasks, so neither side holds the whole store in a list. A copy
+ * broken off halfway leaves the follower partly replaced until the next copy, see {@link #copyBrokenOff()}.
+ */
+public class TaskReplication {
+
+    private static final byte OP_END = 0;
+    private static final byte OP_SAVE = 1;
+    private static final byte OP_DELETE = 2;
+    private static final byte OP_CLEAR = 3;
+    private static final byte OP_NEXT_ID = 4;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DbInMemory db;
+    private final int batchSize;
+    private final String instance = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+    private volatile boolean copyBrokenOff;
+
+    public TaskReplication(DbInMemory db, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Replication batch size has to be positive");
+        }
+        this.db = db;
+        this.batchSize = batchSize;
+    }
+
+    /** Tag of this run, sequences of another run mean nothing to it. */
+    public String instance() {
+        return instance;
+    }
+
+    /** Whether the last copy was partly applied and then broke off, the follower then needs a new copy. */
+    public boolean copyBrokenOff() {
+        return copyBrokenOff;
+    }
+
+    /** Makes the store a read-only follower, writes come only from {@link #applyBatch(InputStream)}. */
+    public void startFollowing() {
+        db.followLeader();
+    }
+
+    /**
+     * Leader side: writes the next batch for a follower at the given sequence of the given leader run,
+     * a full copy when the follower is new (null instance), from another run or too far behind.
+     */
+    public void writeBatch(String followerInstance, long afterSequence, OutputStream out) throws IOException {
+        List<TaskChangeFeed.Mutation> mutations = instance.equals(followerInstance)
+                ? db.mutationsAfter(afterSequence, batchSize)
+                : null;
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        data.writeUTF(instance);
+        data.writeBoolean(mutations == null);
+        if (mutations == null) {
+            writeCopy(data);
+        } else {
+            writeMutations(mutations, afterSequence, data);
+        }
+        data.flush();
+    }
+
+    /** Follower side: reads one batch written by {@link #writeBatch} and applies it. */
+    public ReplicationBatch applyBatch(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+        String leaderInstance = data.readUTF();
+        boolean copy = data.readBoolean();
+        List<Consumer<TaskReplayTarget>> writes = new ArrayList<>();
+        while (true) {
+            byte op = data.readByte();
+            switch (op) {
+                case OP_SAVE -> {
+                    Task task = TaskRecordCodec.read(data);
+                    writes.add(target -> target.replaySave(task));
+                }
+                case OP_DELETE -> {
+                    long id = data.readLong();
+                    writes.add(target -> target.replayDelete(id));
+                }
+                case OP_CLEAR -> writes.add(TaskReplayTarget::replayClear);
+                case OP_NEXT_ID -> {
+                    long nextId = data.readLong();
+                    writes.add(target -> target.restoreNextId(nextId));
+                }
+                case OP_END -> {
+                    long sequence = data.readLong();
+                    long leaderSequence = data.readLong();
+                    apply(writes);
+                    copyBrokenOff = false;
+                    return new ReplicationBatch(leaderInstance, sequence, leaderSequence, copy);
+                }
+                default -> throw new IOException("Unknown replication record " + op);
+            }
+            if (copy && writes.size() >= batchSize) {
+                copyBrokenOff = true;
+                apply(writes);
+            }
+        }
+    }
+
+    private void apply(List<Consumer<TaskReplayTarget>> writes) {
+        if (!writes.isEmpty()) {
+            db.applyReplicated(target -> writes.forEach(write -> write.accept(target)));
+            writes.clear();
+        }
+    }
+
+    private void writeCopy(DataOutputStream data) throws IOException {
+        // every write up to it is in the store already, the follower replays the later ones over the copy
+        long sequence = db.modificationCount();
+        data.writeByte(OP_CLEAR);
+        try (Stream<Task> tasks = db.streamTasks()) {
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                data.writeByte(OP_SAVE);
+                TaskRecordCodec.write(iterator.next(), data);
+            }
+        }
+        data.writeByte(OP_NEXT_ID);
+        data.writeLong(db.nextId());
+        data.writeByte(OP_END);
+        data.writeLong(sequence);
+        data.writeLong(db.modificationCount());
+    }
+
+    private void writeMutations(List<TaskChangeFeed.Mutation> mutations, long afterSequence,
+                                DataOutputStream data) throws IOException {
+        for (TaskChangeFeed.Mutation mutation : mutations) {
+            switch (mutation.type()) {
+                case CREATED, UPDATED -> {
+                    data.writeByte(OP_SAVE);
+                    TaskRecordCodec.write(mutation.task(), data);
+                }
+                case DELETED -> {
+                    data.writeByte(OP_DELETE);
+                    data.writeLong(mutation.id());
+                }
+                case CLEARED -> data.writeByte(OP_CLEAR);
+            }
+        }
+        data.writeByte(OP_END);
+        data.writeLong(mutations.isEmpty() ? afterSequence : mutations.get(mutations.size() - 1).sequence());
+        // read after the mutations, so it is never behind the last of them
+        data.writeLong(db.modificationCount());
+    }
+}
@@ -0,0 +1,194 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Task;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over task titles and descriptions: normalized token to the sorted ids of tasks
+ * containing it, separately per field so title hits can rank higher. Kept up to date by
+ * {@link DbInMemory} under its write lock; queries read the immutable postings without locking.
+ * <p>
+ * Every query word must match (AND) and matches as a prefix, so "dok" finds "dokumentace".
+ * Tasks with the word exactly in the title rank first, then exactly in the description,
+ * then prefix-only matches; ties are broken by id.
+ */
+final class TaskSearchIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final int EXACT_TITLE_SCORE = 4;
+    private static final int EXACT_DESCRIPTION_SCORE = 2;
+    private static final int MATCH_SCORE = 1;
+    private static final int SCORE_SHIFT = 48;
+    private static final long ID_MASK = (1L << SCORE_SHIFT) - 1;
+    private static final int MAX_SCORE = (1 << (63 - SCORE_SHIFT)) - 1;
+
+    private final ConcurrentSkipListMap<String, IdPostings> titleTokens = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, IdPostings> descriptionTokens = new ConcurrentSkipListMap<>();
+
+    void update(long id, Task previous, Task current) {
+        updateField(titleTokens, id,
+                previous == null ? null : previous.getTitle(),
+                current == null ? null : current.getTitle());
+        updateField(descriptionTokens, id,
+                previous == null ? null : previous.getDescription(),
+                current == null ? null : current.getDescription());
+    }
+
+    void clear() {
+        titleTokens.clear();
+        descriptionTokens.clear();
+    }
+
+    /** Ids of tasks matching every word of the query, best match first. */
+    long[] search(String query) {
+        List<TermMatch> terms = tokenize(query).stream()
+                .map(this::match)
+                .sorted(Comparator.comparingLong(TermMatch::estimatedSize))
+                .toList();
+        if (terms.isEmpty() || terms.get(0).estimatedSize() == 0) {
+            return new long[0];
+        }
+
+        // the rarest word drives the query, the others are membership checks
+        TermMatch driver = terms.get(0);
+        long[] candidates = driver.ids();
+        long[] ranked = new long[candidates.length];
+        int count = 0;
+        candidates:
+        for (long id : candidates) {
+            int score = 0;
+            for (TermMatch term : terms) {
+                if (term != driver && !term.contains(id)) {
+                    continue candidates;
+                }
+                score += term.score(id);
+            }
+            ranked[count++] = ((long) (MAX_SCORE - Math.min(score, MAX_SCORE)) << SCORE_SHIFT) | id;
+        }
+
+        Arrays.sort(ranked, 0, count);
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = ranked[i] & ID_MASK;
+        }
+        return ids;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        normalized = COMBINING_MARKS.matcher(normalized).replaceAll("");
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    private static void updateField(ConcurrentSkipListMap<String, IdPostings> index, long id, String before, String after) {
+        Set<String> removed = new HashSet<>(tokenize(before));
+        Set<String> added = new HashSet<>(tokenize(after));
+        if (removed.equals(added)) {
+            return;
+        }
+        Set<String> kept = new HashSet<>(removed);
+        kept.retainAll(added);
+        removed.removeAll(kept);
+        added.removeAll(kept);
+
+        for (String token : removed) {
+            IdPostings postings = index.getOrDefault(token, IdPostings.EMPTY).without(id);
+            if (postings.isEmpty()) {
+                index.remove(token);
+            } else {
+                index.put(token, postings);
+            }
+        }
+        for (String token : added) {
+            index.put(token, index.getOrDefault(token, IdPostings.EMPTY).with(id));
+        }
+    }
+
+    private TermMatch match(String term) {
+        List<IdPostings> postings = new ArrayList<>();
+        postings.addAll(withPrefix(titleTokens, term));
+        postings.addAll(withPrefix(descriptionTokens, term));
+        return new TermMatch(
+                titleTokens.getOrDefault(term, IdPostings.EMPTY),
+                descriptionTokens.getOrDefault(term, IdPostings.EMPTY),
+                postings
+        );
+    }
+
+    private static Collection<IdPostings> withPrefix(ConcurrentSkipListMap<String, IdPostings> index, String prefix) {
+        return index.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values();
+    }
+
+    private static final class TermMatch {
+
+        private final IdPostings exactTitle;
+        private final IdPostings exactDescription;
+        private final List<IdPostings> postings;
+        private final long estimatedSize;
+        private long[] ids;
+
+        private TermMatch(IdPostings exactTitle, IdPostings exactDescription, List<IdPostings> postings) {
+            this.exactTitle = exactTitle;
+            this.exactDescription = exactDescription;
+            this.postings = postings;
+            this.estimatedSize = postings.stream().mapToLong(IdPostings::size).sum();
+        }
+
+        long estimatedSize() {
+            return estimatedSize;
+        }
+
+        boolean contains(long id) {
+            if (postings.size() == 1) {
+                return postings.get(0).contains(id);
+            }
+            return Arrays.binarySearch(ids(), id) >= 0;
+        }
+
+        int score(long id) {
+            int score = MATCH_SCORE;
+            if (exactTitle.contains(id)) {
+                score += EXACT_TITLE_SCORE;
+            }
+            if (exactDescription.contains(id)) {
+                score += EXACT_DESCRIPTION_SCORE;
+            }
+            return score;
+        }
+
+        /** Sorted distinct ids of every token the term matches, built on first use. */
+        long[] ids() {
+            if (ids == null) {
+                long[] collected = new long[(int) estimatedSize];
+                int[] size = {0};
+                for (IdPostings tokenPostings : postings) {
+                    tokenPostings.forEach(id -> collected[size[0]++] = id);
+                }
+                ids = postings.size() == 1 ? collected : Arrays.stream(collected).sorted().distinct().toArray();
+            }
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Task;
+
+import java.util.List;
+
+public record TaskSearchResult(
+        List<Task> tasks,
+        long totalMatches
+) {
+}
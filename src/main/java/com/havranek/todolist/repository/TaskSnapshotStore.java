@@ -0,0 +1,146 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Task;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshots of the whole store. A snapshot named after segment N contains every write
+ * logged in segments before N, so recovery loads it and replays the log from segment N.
+ * <p>
+ * Snapshots are fuzzy: the tasks are streamed from the live store while writes go on, so a snapshot
+ * may also hold some writes of segment N and later. Replaying those again is harmless, every log
+ * record is a whole task, a delete or a clear. Each task is preceded by a marker byte, the stream
+ * ends with {@link #END}, so writing never needs the count up front.
+ */
+final class TaskSnapshotStore {
+
+    private static final int MAGIC = 0x54534E50;
+    private static final int VERSION = 2;
+    private static final byte TASK = 1;
+    private static final byte END = 0;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private final Path dir;
+
+    TaskSnapshotStore(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Restores the newest intact snapshot into the target and returns the first log segment
+     * it does not cover, or 0 when there is no usable snapshot.
+     */
+    long loadLatest(TaskReplayTarget target) throws IOException {
+        List<Long> segments = listSnapshots();
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Path path = snapshotPath(segments.get(i));
+            if (isIntact(path)) {
+                read(path, target);
+                return segments.get(i);
+            }
+        }
+        return 0;
+    }
+
+    void write(long segment, long nextId, Stream<Task> tasks) throws IOException {
+        Path target = snapshotPath(segment);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile())) {
+            CRC32 checksum = new CRC32();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(file), checksum));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(nextId);
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                out.writeByte(TASK);
+                TaskRecordCodec.write(iterator.next(), out);
+            }
+            out.writeByte(END);
+            out.writeLong(checksum.getValue());
+            out.flush();
+            file.getChannel().force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    void deleteBefore(long segment) throws IOException {
+        for (long index : listSnapshots()) {
+            if (index < segment) {
+                Files.deleteIfExists(snapshotPath(index));
+            }
+        }
+    }
+
+    private boolean isIntact(Path path) {
+        try (DataInputStream in = open(path)) {
+            CheckedInputStream checked = new CheckedInputStream(in, new CRC32());
+            DataInputStream content = new DataInputStream(checked);
+            if (content.readInt() != MAGIC) {
+                return false;
+            }
+            if (content.readInt() != VERSION) {
+                return false;
+            }
+            content.readLong();
+            while (content.readByte() == TASK) {
+                TaskRecordCodec.read(content);
+            }
+            long expected = checked.getChecksum().getValue();
+            return content.readLong() == expected;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void read(Path path, TaskReplayTarget target) throws IOException {
+        try (DataInputStream in = open(path)) {
+            in.readInt();
+            in.readInt();
+            target.replayClear();
+            target.restoreNextId(in.readLong());
+            while (in.readByte() == TASK) {
+                target.replaySave(TaskRecordCodec.read(in));
+            }
+        }
+    }
+
+    private DataInputStream open(Path path) throws IOException {
+        InputStream file = Files.newInputStream(path);
+        return new DataInputStream(new BufferedInputStream(file));
+    }
+
+    private Path snapshotPath(long segment) {
+        return dir.resolve(String.format("%s%016d%s", SNAPSHOT_PREFIX, segment, SNAPSHOT_SUFFIX));
+    }
+
+    private List<Long> listSnapshots() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(),
+                            name.length() - SNAPSHOT_SUFFIX.length())))
+                    .sorted(Comparator.naturalOrder())
+                    .toList();
+        }
+    }
+}
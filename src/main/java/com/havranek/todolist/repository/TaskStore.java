@@ -0,0 +1,33 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Task;
+
+import java.util.stream.Stream;
+
+/**
+ * Primary storage behind {@link DbInMemory}. Reads may run concurrently with a write,
+ * writes are always serialized by the repository.
+ */
+public interface TaskStore {
+
+    Task get(long id);
+
+    boolean contains(long id);
+
+    /** Version of the stored task, 0 when there is none. */
+    long version(long id);
+
+    /** Stores the task under its id and returns the task it replaced, or null. */
+    Task put(Task task);
+
+    /** Returns the removed task, or null when there was none. */
+    Task remove(long id);
+
+    void clear();
+
+    /** Tasks with id greater than afterId in ascending id order. */
+    Stream<Task> streamAfter(long afterId);
+
+    /** Highest stored id, 0 when empty. */
+    long lastId();
+}
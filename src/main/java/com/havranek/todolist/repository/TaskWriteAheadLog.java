@@ -0,0 +1,404 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.exceptions.PersistenceFailed;
+import com.havranek.todolist.model.entity.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of repository writes split into numbered segment files.
+ * <p>
+ * Writers only copy their record into an in-memory buffer and get a sequence number back. A single
+ * flusher thread writes everything buffered so far with one {@code write} + {@code force}, so all
+ * requests waiting in {@link #awaitDurable(long)} share the same fsync (group commit).
+ * <p>
+ * The log fails closed: the first failed write stops the flusher, nothing after it is written, so a
+ * segment never gets a hole or a torn record in the middle. From then on every append and every
+ * wait throws {@link PersistenceFailed} until restart. Writes of the failed batch were already
+ * applied in memory; their callers get the error, and the restart drops them with the rest of the
+ * unlogged state.
+ */
+final class TaskWriteAheadLog implements Closeable {
+
+    private static final byte OP_SAVE = 1;
+    private static final byte OP_DELETE = 2;
+    private static final byte OP_CLEAR = 3;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final Logger log = LoggerFactory.getLogger(TaskWriteAheadLog.class);
+
+    private final Path dir;
+    private final boolean fsync;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition recordsPending = lock.newCondition();
+    private final Condition recordsDurable = lock.newCondition();
+    private final RecordBuffer scratch = new RecordBuffer();
+    private final DataOutputStream scratchOut = new DataOutputStream(scratch);
+    private final CRC32 checksum = new CRC32();
+    private final Thread flusher;
+
+    private RecordBuffer pending = new RecordBuffer();
+    private RecordBuffer flushing = new RecordBuffer();
+    private FileChannel channel;
+    private long segment;
+    private long appendedSequence;
+    private long durableSequence;
+    private boolean flushInProgress;
+    private boolean rotateRequested;
+    private boolean closed;
+    private volatile IOException failure;
+
+    TaskWriteAheadLog(Path dir, boolean fsync) throws IOException {
+        this.dir = dir;
+        this.fsync = fsync;
+        List<Long> existing = listSegments();
+        this.segment = existing.isEmpty() ? 1 : existing.get(existing.size() - 1) + 1;
+        this.channel = openSegment(segment);
+        this.flusher = new Thread(this::flushLoop, "task-wal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    long appendSave(Task task) {
+        lock.lock();
+        try {
+            scratch.reset();
+            scratchOut.writeByte(OP_SAVE);
+            TaskRecordCodec.write(task, scratchOut);
+            return appendScratch();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long appendDelete(long id) {
+        lock.lock();
+        try {
+            scratch.reset();
+            scratchOut.writeByte(OP_DELETE);
+            scratchOut.writeLong(id);
+            return appendScratch();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long appendClear() {
+        lock.lock();
+        try {
+            scratch.reset();
+            scratchOut.writeByte(OP_CLEAR);
+            return appendScratch();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void awaitDurable(long sequence) {
+        lock.lock();
+        try {
+            while (durableSequence < sequence && failure == null) {
+                recordsDurable.awaitUninterruptibly();
+            }
+            if (durableSequence < sequence) {
+                throw new PersistenceFailed(failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts a new segment and returns its number. The flusher switches between two batches, so
+     * appends go on meanwhile; every record appended before the call is in an older segment or the
+     * returned one.
+     */
+    long rotate() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Write-ahead log is closed");
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            rotateRequested = true;
+            recordsPending.signal();
+            while (rotateRequested && failure == null) {
+                recordsDurable.awaitUninterruptibly();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return segment;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Whether a write failed, the log then takes no more records. */
+    boolean failed() {
+        return failure != null;
+    }
+
+    void replay(long fromSegment, TaskReplayTarget target) throws IOException {
+        for (long index : listSegments()) {
+            if (index >= fromSegment && index < segment) {
+                replaySegment(segmentPath(index), target);
+            }
+        }
+    }
+
+    void deleteSegmentsBefore(long beforeSegment) throws IOException {
+        for (long index : listSegments()) {
+            if (index < beforeSegment) {
+                Files.deleteIfExists(segmentPath(index));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            recordsPending.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+    }
+
+    private long appendScratch() {
+        if (closed) {
+            throw new IllegalStateException("Write-ahead log is closed");
+        }
+        if (failure != null) {
+            throw new PersistenceFailed(failure);
+        }
+        checksum.reset();
+        checksum.update(scratch.buffer(), 0, scratch.size());
+        pending.writeInt(scratch.size());
+        pending.writeInt((int) checksum.getValue());
+        pending.write(scratch.buffer(), 0, scratch.size());
+        recordsPending.signal();
+        return ++appendedSequence;
+    }
+
+    private void flushLoop() {
+        while (true) {
+            RecordBuffer batch;
+            FileChannel target;
+            long batchSequence;
+
+            lock.lock();
+            try {
+                while (pending.size() == 0 && !closed && !rotateRequested) {
+                    recordsPending.awaitUninterruptibly();
+                }
+                if (rotateRequested && !switchSegment()) {
+                    return;
+                }
+                if (pending.size() == 0) {
+                    if (closed) {
+                        return;
+                    }
+                    continue;
+                }
+                batch = pending;
+                pending = flushing;
+                flushing = batch;
+                target = channel;
+                batchSequence = appendedSequence;
+                flushInProgress = true;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException writeFailure = null;
+            try {
+                ByteBuffer bytes = ByteBuffer.wrap(batch.buffer(), 0, batch.size());
+                while (bytes.hasRemaining()) {
+                    target.write(bytes);
+                }
+                if (fsync) {
+                    target.force(false);
+                }
+            } catch (IOException e) {
+                writeFailure = e;
+            }
+
+            lock.lock();
+            try {
+                batch.reset();
+                flushInProgress = false;
+                if (writeFailure != null) {
+                    failure = writeFailure;
+                    // records appended meanwhile are never written, they would follow a partial batch
+                    pending.reset();
+                } else {
+                    durableSequence = batchSequence;
+                }
+                recordsDurable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (writeFailure != null) {
+                log.error("Write-ahead log write failed, the store is read-only until restart", writeFailure);
+                return;
+            }
+        }
+    }
+
+    /** Called by the flusher holding the lock, false when the new segment could not be opened. */
+    private boolean switchSegment() {
+        rotateRequested = false;
+        try {
+            channel.close();
+            channel = openSegment(segment + 1);
+            segment++;
+            return true;
+        } catch (IOException e) {
+            failure = e;
+            pending.reset();
+            log.error("Opening a new write-ahead log segment failed, the store is read-only until restart", e);
+            return false;
+        } finally {
+            recordsDurable.signalAll();
+        }
+    }
+
+    private void replaySegment(Path path, TaskReplayTarget target) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            CRC32 recordChecksum = new CRC32();
+            while (true) {
+                byte[] payload;
+                try {
+                    int length = in.readInt();
+                    int expectedChecksum = in.readInt();
+                    if (length <= 0) {
+                        return;
+                    }
+                    payload = new byte[length];
+                    in.readFully(payload);
+                    recordChecksum.reset();
+                    recordChecksum.update(payload);
+                    if ((int) recordChecksum.getValue() != expectedChecksum) {
+                        return;
+                    }
+                } catch (EOFException e) {
+                    // a torn record at the end of the last segment was never acknowledged
+                    return;
+                }
+                applyRecord(payload, target);
+            }
+        }
+    }
+
+    private void applyRecord(byte[] payload, TaskReplayTarget target) throws IOException {
+        DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+        switch (record.readByte()) {
+            case OP_SAVE -> target.replaySave(TaskRecordCodec.read(record));
+            case OP_DELETE -> target.replayDelete(record.readLong());
+            case OP_CLEAR -> target.replayClear();
+            default -> throw new IOException("Unknown write-ahead log record");
+        }
+    }
+
+    private FileChannel openSegment(long index) throws IOException {
+        return FileChannel.open(segmentPath(index),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(long index) {
+        return dir.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static final class RecordBuffer extends OutputStream {
+
+        private byte[] buffer = new byte[64 * 1024];
+        private int size;
+
+        @Override
+        public void write(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, buffer, size, length);
+            size += length;
+        }
+
+        private void writeInt(int value) {
+            ensureCapacity(Integer.BYTES);
+            buffer[size++] = (byte) (value >>> 24);
+            buffer[size++] = (byte) (value >>> 16);
+            buffer[size++] = (byte) (value >>> 8);
+            buffer[size++] = (byte) value;
+        }
+
+        private byte[] buffer() {
+            return buffer;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void reset() {
+            size = 0;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+}
@@ -0,0 +1,454 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Two tier store: open and recently finished tasks stay in the hot store, tasks that were completed
+ * or failed more than coldAfterDays ago are moved to {@link ColdTaskSegments} on disk. In memory the
+ * cold tier keeps only primitive indexes, the sorted ids in {@link IdPostings} and their locations in
+ * an {@link IdLocationMap}, a few dozen bytes per cold task, with a bounded LRU cache of cold tasks in
+ * front of the segments. The task objects of the history stay off the heap this way; the secondary
+ * indexes of {@link DbInMemory} (status and date sets, search postings, columns) still hold an entry
+ * for every task, cold ones included, and grow with the history.
+ * <p>
+ * Tasks move when they are saved and by a periodic pass over the hot store, since a finished task
+ * turns cold just by time passing. Writes and moves are serialized by a lock of the store. A moved
+ * task is visible in the target tier before it leaves the source tier. Reads look in the hot tier,
+ * then in the cold one; only a read that finds the task in neither takes the lock and looks again,
+ * since a task moving back to memory may leave the cold tier between the two lookups. A stream
+ * takes the ids of both tiers at one point under the lock and looks every id up like that, so it
+ * never misses a task that was stored throughout.
+ * <p>
+ * Once half of the cold segments is garbage, a write asks the mover thread to compact them, which
+ * copies the live records out one lock section per task, so a writer never waits for a whole pass.
+ */
+public class TieredTaskStore implements TaskStore, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(TieredTaskStore.class);
+
+    private final HeapTaskStore hot;
+    private final ColdTaskSegments cold;
+    private final IdLocationMap coldLocations = new IdLocationMap();
+    private volatile IdPostings coldIds = IdPostings.EMPTY;
+    private final ColdCache cache;
+    private final int coldAfterDays;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private final ScheduledExecutorService mover;
+    private boolean compactionRequested;
+
+    public TieredTaskStore(HeapTaskStore hot, Path coldDir, int coldAfterDays, int cacheSize, Clock clock) throws IOException {
+        this(hot, coldDir, coldAfterDays, cacheSize, clock, ColdTaskSegments.DEFAULT_SEGMENT_SIZE);
+    }
+
+    TieredTaskStore(HeapTaskStore hot, Path coldDir, int coldAfterDays, int cacheSize, Clock clock, long segmentSize) throws IOException {
+        this.hot = hot;
+        this.cold = new ColdTaskSegments(coldDir, segmentSize);
+        this.cache = new ColdCache(cacheSize);
+        this.coldAfterDays = coldAfterDays;
+        this.clock = clock;
+        this.mover = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-cold-mover");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void scheduleMoves(long intervalMinutes) {
+        if (intervalMinutes <= 0) {
+            return;
+        }
+        mover.scheduleWithFixedDelay(() -> {
+            try {
+                moveColdTasks();
+            } catch (RuntimeException e) {
+                log.warn("Moving cold tasks to disk failed, they stay in memory", e);
+            }
+        }, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    /** Moves hot tasks that turned cold to disk, one lock section per task. Returns how many moved. */
+    public int moveColdTasks() {
+        long[] candidates = hot.streamAfter(0)
+                .filter(this::isCold)
+                .mapToLong(Task::getId)
+                .toArray();
+        int moved = 0;
+        for (long id : candidates) {
+            lock.lock();
+            try {
+                Task task = hot.get(id);
+                if (task != null && isCold(task) && putCold(task)) {
+                    hot.remove(id);
+                    moved++;
+                }
+                requestCompaction();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Appends the live records of the cold segments written so far again and drops those segments,
+     * when at least half of the cold bytes is garbage. Runs on the mover thread after a write asked
+     * for it; tasks saved meanwhile go to the fresh segment and are not copied.
+     */
+    public void compact() {
+        compactionLock.lock();
+        try {
+            List<Integer> compacted;
+            lock.lock();
+            try {
+                compactionRequested = false;
+                if (!cold.needsCompaction()) {
+                    return;
+                }
+                compacted = cold.startCompaction();
+            } finally {
+                lock.unlock();
+            }
+            Set<Integer> dropped = Set.copyOf(compacted);
+            for (PrimitiveIterator.OfLong ids = coldIds.iteratorAfter(0); ids.hasNext(); ) {
+                long id = ids.nextLong();
+                if (dropped.contains(ColdTaskSegments.segment(coldLocations.get(id)))) {
+                    lock.lock();
+                    try {
+                        long location = coldLocations.get(id);
+                        if (location != 0 && dropped.contains(ColdTaskSegments.segment(location))) {
+                            coldLocations.put(id, cold.append(cold.read(location)));
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }
+            lock.lock();
+            try {
+                cold.drop(compacted);
+            } finally {
+                lock.unlock();
+            }
+            cache.clear();
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    public long coldCount() {
+        return coldIds.size();
+    }
+
+    @Override
+    public Task get(long id) {
+        Task task = find(id);
+        if (task != null) {
+            return task;
+        }
+        lock.lock();
+        try {
+            return find(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(long id) {
+        if (hot.contains(id) || coldLocations.get(id) != 0) {
+            return true;
+        }
+        lock.lock();
+        try {
+            return hot.contains(id) || coldLocations.get(id) != 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long version(long id) {
+        long version = hot.version(id);
+        if (version != 0) {
+            return version;
+        }
+        Task task = getCold(id);
+        return task == null ? 0 : task.getVersion();
+    }
+
+    @Override
+    public Task put(Task task) {
+        lock.lock();
+        try {
+            Task previous = get(task.getId());
+            if (isCold(task) && putCold(task)) {
+                hot.remove(task.getId());
+            } else {
+                hot.put(task);
+                releaseCold(task.getId());
+            }
+            requestCompaction();
+            return previous;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Task remove(long id) {
+        lock.lock();
+        try {
+            Task removed = hot.remove(id);
+            if (removed == null) {
+                removed = getCold(id);
+            }
+            releaseCold(id);
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            hot.clear();
+            coldLocations.clear();
+            coldIds = IdPostings.EMPTY;
+            cache.clear();
+            cold.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Stream<Task> streamAfter(long afterId) {
+        PrimitiveIterator.OfLong merged;
+        lock.lock();
+        try {
+            merged = new MergedIds(hot.idsAfter(afterId), coldIds.iteratorAfter(afterId));
+        } finally {
+            lock.unlock();
+        }
+        // null when the task was deleted since the ids were taken
+        return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(merged,
+                        Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false)
+                .mapToObj(this::get)
+                .filter(Objects::nonNull);
+    }
+
+    @Override
+    public long lastId() {
+        IdPostings cold = coldIds;
+        return Math.max(hot.lastId(), cold.isEmpty() ? 0 : cold.last());
+    }
+
+    @Override
+    public void close() {
+        mover.shutdownNow();
+        cold.close();
+    }
+
+    private boolean isCold(Task task) {
+        return (task.getStatus() == Status.COMPLETED || task.getStatus() == Status.FAILED)
+                && task.getFinished() != null
+                && task.getFinished().isBefore(LocalDate.now(clock).minusDays(coldAfterDays));
+    }
+
+    /** Writes the task to the cold tier, false when it does not fit a cold record and stays hot. */
+    private boolean putCold(Task task) {
+        long location = cold.append(task);
+        if (location < 0) {
+            return false;
+        }
+        long previous = coldLocations.put(task.getId(), location);
+        if (previous != 0) {
+            cold.release(previous);
+        } else {
+            coldIds = coldIds.with(task.getId());
+        }
+        return true;
+    }
+
+    private void releaseCold(long id) {
+        long location = coldLocations.remove(id);
+        if (location != 0) {
+            coldIds = coldIds.without(id);
+            cold.release(location);
+        }
+    }
+
+    /** Hot tier first, a task moving to disk is in the cold tier before it leaves the hot one. */
+    private Task find(long id) {
+        Task task = hot.get(id);
+        return task != null ? task : getCold(id);
+    }
+
+    private Task getCold(long id) {
+        while (true) {
+            long location = coldLocations.get(id);
+            if (location == 0) {
+                return null;
+            }
+            Task cached = cache.get(id, location);
+            if (cached != null) {
+                return cached;
+            }
+            try {
+                Task task = cold.read(location);
+                cache.put(id, location, task);
+                return task;
+            } catch (IOException e) {
+                // a compaction moved the task meanwhile, look it up again
+                if (coldLocations.get(id) == location) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    /** Called holding the lock; queues one compaction on the mover thread while none is pending. */
+    private void requestCompaction() {
+        if (compactionRequested || !cold.needsCompaction() || mover.isShutdown()) {
+            return;
+        }
+        compactionRequested = true;
+        mover.execute(() -> {
+            try {
+                compact();
+            } catch (RuntimeException e) {
+                log.warn("Compacting the cold segments failed, they are kept", e);
+            }
+        });
+    }
+
+    /** Hot and cold ids in ascending order; an id in both tiers (while it moves) is returned once. */
+    private static final class MergedIds implements PrimitiveIterator.OfLong {
+
+        private final PrimitiveIterator.OfLong hotIds;
+        private final PrimitiveIterator.OfLong coldIds;
+        private long nextHot;
+        private long nextCold;
+
+        private MergedIds(PrimitiveIterator.OfLong hotIds, PrimitiveIterator.OfLong coldIds) {
+            this.hotIds = hotIds;
+            this.coldIds = coldIds;
+            this.nextHot = advance(hotIds);
+            this.nextCold = advance(coldIds);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextHot != 0 || nextCold != 0;
+        }
+
+        @Override
+        public long nextLong() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            long id;
+            if (nextCold == 0 || (nextHot != 0 && nextHot <= nextCold)) {
+                id = nextHot;
+                nextHot = advance(hotIds);
+            } else {
+                id = nextCold;
+            }
+            if (nextCold == id) {
+                nextCold = advance(coldIds);
+            }
+            return id;
+        }
+
+        /** Ids are positive, 0 marks the end. */
+        private static long advance(PrimitiveIterator.OfLong ids) {
+            return ids.hasNext() ? ids.nextLong() : 0;
+        }
+    }
+
+    /** Cold tasks by id, valid only while the id still points to the location they were read from. */
+    private static final class ColdCache {
+
+        private final int capacity;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Long, CachedTask> tasks;
+
+        private ColdCache(int capacity) {
+            this.capacity = capacity;
+            this.tasks = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, CachedTask> eldest) {
+                    return size() > ColdCache.this.capacity;
+                }
+            };
+        }
+
+        Task get(long id, long location) {
+            if (capacity == 0) {
+                return null;
+            }
+            lock.lock();
+            try {
+                CachedTask cached = tasks.get(id);
+                return cached != null && cached.location() == location ? cached.task() : null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(long id, long location, Task task) {
+            if (capacity == 0) {
+                return;
+            }
+            lock.lock();
+            try {
+                tasks.put(id, new CachedTask(location, task));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                tasks.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private record CachedTask(long location, Task task) {
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.havranek.todolist.service;
+
+import com.havranek.todolist.model.dto.ImportReport;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.InputStream;
+
+public interface CsvTaskImporter {
+
+    ImportReport importNew(InputStream csv, ImportProgress progress);
+
+    ImportReport importExisting(InputStream csv, ImportProgress progress);
+
+    /**
+     * Imports new tasks line by line as the buffers arrive, pulling the next buffers only after the
+     * previous batch was saved. Quoted values must not span lines.
+     */
+    Mono<ImportReport> importNew(Flux<DataBuffer> csv);
+
+    default ImportReport importNew(InputStream csv) {
+        return importNew(csv, new ImportProgress());
+    }
+
+    default ImportReport importExisting(InputStream csv) {
+        return importExisting(csv, new ImportProgress());
+    }
+}
@@ -0,0 +1,304 @@
+package com.havranek.todolist.service;
+
+import com.havranek.todolist.mapper.TaskMapper;
+import com.havranek.todolist.model.dto.ImportReport;
+import com.havranek.todolist.model.dto.TaskCreateDTO;
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+import com.havranek.todolist.model.messages.ImportRowError;
+import com.havranek.todolist.repository.Repository;
+import com.opencsv.CSVParser;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class CsvTaskImporterImpl implements CsvTaskImporter {
+
+    private static final int NEW_ROW_COLUMNS = 3;
+    private static final int EXIST_ROW_COLUMNS = 7;
+    private static final int CHUNKS_IN_FLIGHT_PER_WORKER = 2;
+    private static final StringDecoder LINE_DECODER = StringDecoder.textPlainOnly();
+    private static final ResolvableType LINE_TYPE = ResolvableType.forClass(String.class);
+
+    private final Repository repository;
+    private final TaskMapper taskMapper;
+    private final Validator validator;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final int maxChunksInFlight;
+    private final ExecutorService workerPool;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    @Autowired
+    public CsvTaskImporterImpl(Repository repository, TaskMapper taskMapper, Validator validator, MeterRegistry meterRegistry,
+                               @Value("${todolist.import.batch-size:1000}") int batchSize,
+                               @Value("${todolist.import.max-reported-errors:100}") int maxReportedErrors,
+                               @Value("${todolist.import.workers:1}") int workers) {
+        this.repository = repository;
+        this.taskMapper = taskMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.maxChunksInFlight = workers * CHUNKS_IN_FLIGHT_PER_WORKER;
+        this.workerPool = workers > 1 ? Executors.newFixedThreadPool(workers, workerThreadFactory()) : null;
+        this.importedRows = rowCounter(meterRegistry, "imported");
+        this.rejectedRows = rowCounter(meterRegistry, "rejected");
+    }
+
+    @Override
+    public ImportReport importNew(InputStream csv, ImportProgress progress) {
+        return importRows(csv, this::parseNewRow, progress);
+    }
+
+    @Override
+    public ImportReport importExisting(InputStream csv, ImportProgress progress) {
+        return importRows(csv, this::parseExistingRow, progress);
+    }
+
+    @Override
+    public Mono<ImportReport> importNew(Flux<DataBuffer> csv) {
+        return importLines(csv, this::parseNewRow);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (workerPool != null) {
+            workerPool.shutdownNow();
+        }
+    }
+
+    private ImportReport importRows(InputStream csv, Function<String[], Task> rowParser, ImportProgress progress) {
+        try (CSVReader reader = new CSVReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            reader.skip(1);
+            if (workerPool == null) {
+                List<RawRow> chunk;
+                while (!(chunk = readChunk(reader)).isEmpty()) {
+                    commit(parseChunk(chunk, rowParser), progress);
+                }
+            } else {
+                importInParallel(reader, rowParser, progress);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return progress.toReport();
+    }
+
+    private Mono<ImportReport> importLines(Flux<DataBuffer> csv, Function<String[], Task> rowParser) {
+        return Mono.defer(() -> {
+            ImportProgress progress = new ImportProgress();
+            CSVParser parser = new CSVParser();
+            AtomicLong lineNumber = new AtomicLong();
+            return LINE_DECODER.decode(csv, LINE_TYPE, null, null)
+                    .map(line -> parseLine(parser, lineNumber.incrementAndGet(), line))
+                    .skip(1)
+                    .filter(row -> row.values() == null || !isBlank(row.values()))
+                    .buffer(batchSize)
+                    // one batch at a time, so at most a batch of rows is held while it is saved
+                    .concatMap(chunk -> Mono.fromRunnable(() -> commit(parseChunk(chunk, rowParser), progress)), 1)
+                    .then(Mono.fromSupplier(progress::toReport));
+        });
+    }
+
+    private static RawRow parseLine(CSVParser parser, long line, String text) {
+        try {
+            return new RawRow(line, parser.parseLine(text), null);
+        } catch (IOException e) {
+            return new RawRow(line, null, e.getMessage());
+        }
+    }
+
+    private void importInParallel(CSVReader reader, Function<String[], Task> rowParser, ImportProgress progress) throws IOException {
+        Deque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+        try {
+            List<RawRow> chunk;
+            while (!(chunk = readChunk(reader)).isEmpty()) {
+                List<RawRow> rows = chunk;
+                inFlight.addLast(workerPool.submit(() -> parseChunk(rows, rowParser)));
+                if (inFlight.size() >= maxChunksInFlight) {
+                    commit(await(inFlight.removeFirst()), progress);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                commit(await(inFlight.removeFirst()), progress);
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private List<RawRow> readChunk(CSVReader reader) throws IOException {
+        List<RawRow> chunk = new ArrayList<>(batchSize);
+        while (chunk.size() < batchSize) {
+            String[] oneRow;
+            try {
+                oneRow = reader.readNext();
+            } catch (CsvValidationException e) {
+                chunk.add(new RawRow(reader.getLinesRead(), null, e.getMessage()));
+                continue;
+            }
+            if (oneRow == null) {
+                break;
+            }
+            if (!isBlank(oneRow)) {
+                chunk.add(new RawRow(reader.getLinesRead(), oneRow, null));
+            }
+        }
+        return chunk;
+    }
+
+    private ParsedChunk parseChunk(List<RawRow> chunk, Function<String[], Task> rowParser) {
+        List<Task> tasks = new ArrayList<>(chunk.size());
+        List<ImportRowError> errors = new ArrayList<>();
+        for (RawRow row : chunk) {
+            if (row.readError() != null) {
+                errors.add(new ImportRowError(row.line(), row.readError()));
+                continue;
+            }
+            try {
+                tasks.add(rowParser.apply(row.values()));
+            } catch (RuntimeException e) {
+                errors.add(new ImportRowError(row.line(), describe(e)));
+            }
+        }
+        return new ParsedChunk(chunk.size(), tasks, errors);
+    }
+
+    private void commit(ParsedChunk parsed, ImportProgress progress) {
+        if (!parsed.tasks().isEmpty()) {
+            repository.saveAll(parsed.tasks());
+        }
+        for (ImportRowError error : parsed.errors()) {
+            if (progress.reportedErrors() >= maxReportedErrors) {
+                break;
+            }
+            progress.addError(error);
+        }
+        progress.recordChunk(parsed.rows(), parsed.tasks().size(), parsed.errors().size());
+        importedRows.increment(parsed.tasks().size());
+        rejectedRows.increment(parsed.errors().size());
+    }
+
+    private Task parseNewRow(String[] oneRow) {
+        checkColumns(oneRow, NEW_ROW_COLUMNS);
+        TaskCreateDTO newDTO = new TaskCreateDTO(oneRow[0],
+                LocalDate.parse(oneRow[1]), oneRow[2]);
+        validate(newDTO);
+        return taskMapper.mapCreateDTOToTask(newDTO);
+    }
+
+    private Task parseExistingRow(String[] oneRow) {
+        checkColumns(oneRow, EXIST_ROW_COLUMNS);
+        Task task = new Task(
+                Long.parseLong(oneRow[0]),
+                oneRow[1],
+                Status.valueOf(oneRow[2].toUpperCase()),
+                LocalDate.parse(oneRow[3]),
+                LocalDate.parse(oneRow[4]),
+                oneRow[5].isBlank() ? null : LocalDate.parse(oneRow[5]),
+                oneRow[6].isEmpty() ? null : oneRow[6]
+        );
+        validate(task);
+        return task;
+    }
+
+    private <T> void validate(T row) {
+        Set<ConstraintViolation<T>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    private static ParsedChunk await(Future<ParsedChunk> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("CSV import interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void checkColumns(String[] oneRow, int expected) {
+        if (oneRow.length < expected) {
+            throw new IllegalArgumentException("Expected " + expected + " columns, found " + oneRow.length);
+        }
+    }
+
+    private static boolean isBlank(String[] oneRow) {
+        return oneRow.length == 1 && oneRow[0].isBlank();
+    }
+
+    private static String describe(RuntimeException e) {
+        if (e instanceof ConstraintViolationException violationException) {
+            return violationException.getConstraintViolations().stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        return e.getMessage();
+    }
+
+    private static Counter rowCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("todolist.import.rows")
+                .description("CSV rows committed by imports")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "csv-import-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record RawRow(long line, String[] values, String readError) {
+    }
+
+    private record ParsedChunk(int rows, List<Task> tasks, List<ImportRowError> errors) {
+    }
+}
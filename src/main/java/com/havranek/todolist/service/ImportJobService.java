@@ -0,0 +1,13 @@
+package com.havranek.todolist.service;
+
+import com.havranek.todolist.model.dto.ImportJobStatus;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface ImportJobService {
+
+    ImportJobStatus submitCreateCSV(MultipartFile file);
+
+    ImportJobStatus submitExistCSV(MultipartFile file);
+
+    ImportJobStatus getStatus(String jobId);
+}
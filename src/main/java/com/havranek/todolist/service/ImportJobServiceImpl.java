@@ -0,0 +1,168 @@
+package com.havranek.todolist.service;
+
+import com.havranek.todolist.exceptions.EntityNotFound;
+import com.havranek.todolist.exceptions.ImportQueueFull;
+import com.havranek.todolist.model.dto.ImportJobState;
+import com.havranek.todolist.model.dto.ImportJobStatus;
+import com.havranek.todolist.model.dto.ImportReport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+@Service
+public class ImportJobServiceImpl implements ImportJobService {
+
+    private final CsvTaskImporter csvTaskImporter;
+    private final TaskExecutor importJobExecutor;
+    private final long retentionNanos;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ImportJobServiceImpl(CsvTaskImporter csvTaskImporter,
+                                @Qualifier("importJobExecutor") TaskExecutor importJobExecutor,
+                                @Value("${todolist.import.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.csvTaskImporter = csvTaskImporter;
+        this.importJobExecutor = importJobExecutor;
+        this.retentionNanos = TimeUnit.MINUTES.toNanos(retentionMinutes);
+    }
+
+    @Override
+    public ImportJobStatus submitCreateCSV(MultipartFile file) {
+        return submit(file, csvTaskImporter::importNew);
+    }
+
+    @Override
+    public ImportJobStatus submitExistCSV(MultipartFile file) {
+        return submit(file, csvTaskImporter::importExisting);
+    }
+
+    @Override
+    public ImportJobStatus getStatus(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new EntityNotFound("Import job not found");
+        }
+        return job.toStatus();
+    }
+
+    private ImportJobStatus submit(MultipartFile file, BiFunction<InputStream, ImportProgress, ImportReport> importer) {
+        purgeFinishedJobs();
+        Path upload = storeUpload(file);
+        ImportJob job = new ImportJob(UUID.randomUUID().toString());
+        jobs.put(job.id, job);
+
+        try {
+            importJobExecutor.execute(() -> run(job, upload, importer));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            deleteUpload(upload);
+            throw new ImportQueueFull();
+        }
+        return job.toStatus();
+    }
+
+    private void run(ImportJob job, Path upload, BiFunction<InputStream, ImportProgress, ImportReport> importer) {
+        job.start();
+        try (InputStream csv = Files.newInputStream(upload)) {
+            importer.apply(csv, job.progress);
+            job.finish(ImportJobState.COMPLETED, null);
+        } catch (IOException | RuntimeException e) {
+            job.finish(ImportJobState.FAILED, e.getMessage());
+        } finally {
+            deleteUpload(upload);
+        }
+    }
+
+    private Path storeUpload(MultipartFile file) {
+        try {
+            Path upload = Files.createTempFile("task-import-", ".csv");
+            file.transferTo(upload);
+            return upload;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteUpload(Path upload) {
+        try {
+            Files.deleteIfExists(upload);
+        } catch (IOException ignored) {
+            // temp directory is cleaned by the OS eventually
+        }
+    }
+
+    private void purgeFinishedJobs() {
+        long now = System.nanoTime();
+        jobs.values().removeIf(job -> job.isFinished() && now - job.finishedNanos > retentionNanos);
+    }
+
+    private static final class ImportJob {
+        private final String id;
+        private final LocalDateTime submitted = LocalDateTime.now();
+        private final ImportProgress progress = new ImportProgress();
+        private volatile ImportJobState state = ImportJobState.QUEUED;
+        private volatile long startedNanos;
+        private volatile long finishedNanos;
+        private volatile String failure;
+
+        private ImportJob(String id) {
+            this.id = id;
+        }
+
+        private void start() {
+            startedNanos = System.nanoTime();
+            state = ImportJobState.RUNNING;
+        }
+
+        private void finish(ImportJobState finalState, String failureMessage) {
+            finishedNanos = System.nanoTime();
+            failure = failureMessage;
+            state = finalState;
+        }
+
+        private boolean isFinished() {
+            return state == ImportJobState.COMPLETED || state == ImportJobState.FAILED;
+        }
+
+        private ImportJobStatus toStatus() {
+            ImportJobState currentState = state;
+            long processed = progress.getProcessedRows();
+            return new ImportJobStatus(
+                    id,
+                    currentState,
+                    submitted,
+                    processed,
+                    progress.getImportedRows(),
+                    progress.getRejectedRows(),
+                    rowsPerSecond(currentState, processed),
+                    progress.getErrors(),
+                    failure
+            );
+        }
+
+        private double rowsPerSecond(ImportJobState currentState, long processed) {
+            if (currentState == ImportJobState.QUEUED) {
+                return 0;
+            }
+            long end = isFinished() ? finishedNanos : System.nanoTime();
+            long elapsed = Math.max(end - startedNanos, 1);
+            return processed * 1_000_000_000.0 / elapsed;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.havranek.todolist.service;
+
+import com.havranek.todolist.model.dto.ImportReport;
+import com.havranek.todolist.model.messages.ImportRowError;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class ImportProgress {
+
+    private final List<ImportRowError> errors = new CopyOnWriteArrayList<>();
+    private volatile long processedRows;
+    private volatile long importedRows;
+    private volatile long rejectedRows;
+
+    void recordChunk(int processed, int imported, int rejected) {
+        processedRows += processed;
+        importedRows += imported;
+        rejectedRows += rejected;
+    }
+
+    void addError(ImportRowError error) {
+        errors.add(error);
+    }
+
+    int reportedErrors() {
+        return errors.size();
+    }
+
+    public long getProcessedRows() {
+        return processedRows;
+    }
+
+    public long getImportedRows() {
+        return importedRows;
+    }
+
+    public long getRejectedRows() {
+        return rejectedRows;
+    }
+
+    public List<ImportRowError> getErrors() {
+        return List.copyOf(errors);
+    }
+
+    public ImportReport toReport() {
+        return new ImportReport(processedRows, importedRows, rejectedRows, getErrors());
+    }
+}
@@ -0,0 +1,16 @@
+package com.havranek.todolist.service;
+
+public interface ReplicationFollower {
+
+    /** Whether this node already has a full copy of the leader's tasks. */
+    boolean synced();
+
+    /** Leader writes this node has not applied yet, as of the last batch. */
+    long lagSequences();
+
+    /**
+     * Milliseconds since this node last had every write the leader had; every write older than that
+     * is visible here. Counts from the start until the first copy arrives.
+     */
+    long lagMillis();
+}
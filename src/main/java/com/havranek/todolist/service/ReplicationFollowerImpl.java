@@ -0,0 +1,165 @@
+package com.havranek.todolist.service;
+
+import com.havranek.todolist.repository.ReplicationBatch;
+import com.havranek.todolist.repository.TaskReplication;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps this node a read-only copy of the replication leader. One daemon thread asks the leader for the
+ * writes after the last applied sequence every poll interval and asks again right away while the leader
+ * has more, so a follower catches up in full batches and then trails by about one poll interval.
+ * <p>
+ * The time lag is bounded from what the batches prove: once the follower applied up to the leader's
+ * latest sequence of an earlier request, it has every write made before that request was sent.
+ */
+@Service
+@ConditionalOnProperty(name = "todolist.replication.role", havingValue = "follower")
+public class ReplicationFollowerImpl implements ReplicationFollower {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationFollowerImpl.class);
+
+    private final TaskReplication replication;
+    private final String logUrl;
+    private final Duration timeout;
+    private final HttpClient client;
+    private final ScheduledExecutorService poller;
+    private volatile String leaderInstance;
+    private volatile long sequence;
+    private volatile long lagSequences;
+    private volatile long caughtUpNanos = System.nanoTime();
+    // leader's latest sequence of the oldest request not caught up with yet, and when it was sent
+    private long pendingSequence = -1;
+    private long pendingSentNanos;
+
+    @Autowired
+    public ReplicationFollowerImpl(TaskReplication replication, MeterRegistry meterRegistry,
+                                   @Value("${todolist.replication.leader-url:}") String leaderUrl,
+                                   @Value("${todolist.replication.poll-millis:100}") long pollMillis,
+                                   @Value("${todolist.replication.timeout-seconds:60}") long timeoutSeconds) {
+        if (leaderUrl.isBlank()) {
+            throw new IllegalArgumentException("A follower needs todolist.replication.leader-url");
+        }
+        this.replication = replication;
+        this.logUrl = leaderUrl.replaceAll("/+$", "") + "/api/replication/log";
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+
+        Gauge.builder("todolist.replication.lag", this, ReplicationFollower::lagSequences)
+                .description("Leader writes this follower has not applied yet")
+                .register(meterRegistry);
+        Gauge.builder("todolist.replication.lag.time", this, follower -> follower.lagMillis() / 1000.0)
+                .description("Time since this follower last had every write of the leader")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replication-follower");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::catchUp, 0, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public boolean synced() {
+        return leaderInstance != null;
+    }
+
+    @Override
+    public long lagSequences() {
+        return lagSequences;
+    }
+
+    @Override
+    public long lagMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - caughtUpNanos);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+        client.close();
+    }
+
+    private void catchUp() {
+        try {
+            ReplicationBatch batch;
+            do {
+                batch = poll();
+            } while (batch.lag() > 0 && !poller.isShutdown());
+        } catch (IOException | RuntimeException e) {
+            if (replication.copyBrokenOff()) {
+                // the store is partly replaced, only a new copy brings it back in line
+                leaderInstance = null;
+            }
+            // shutting down interrupts the poll in flight
+            if (!poller.isShutdown()) {
+                log.warn("Replication from {} failed, retrying", logUrl, e);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ReplicationBatch poll() throws IOException, InterruptedException {
+        String url = logUrl + "?after=" + sequence + (leaderInstance == null ? "" : "&instance=" + leaderInstance);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .GET()
+                .build();
+        long sentNanos = System.nanoTime();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        ReplicationBatch batch;
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                throw new IOException("Leader answered HTTP " + response.statusCode());
+            }
+            batch = replication.applyBatch(body);
+        }
+        if (batch.snapshot()) {
+            log.info("Copied all tasks from leader {} at sequence {}", batch.leaderInstance(), batch.sequence());
+            pendingSequence = -1;
+        }
+        leaderInstance = batch.leaderInstance();
+        sequence = batch.sequence();
+        lagSequences = batch.lag();
+        trackCaughtUp(batch, sentNanos);
+        return batch;
+    }
+
+    private void trackCaughtUp(ReplicationBatch batch, long sentNanos) {
+        if (batch.lag() == 0) {
+            caughtUpNanos = sentNanos;
+            pendingSequence = -1;
+        } else if (pendingSequence < 0) {
+            pendingSequence = batch.leaderSequence();
+            pendingSentNanos = sentNanos;
+        } else if (batch.sequence() >= pendingSequence) {
+            caughtUpNanos = pendingSentNanos;
+            pendingSequence = batch.leaderSequence();
+            pendingSentNanos = sentNanos;
+        }
+    }
+}
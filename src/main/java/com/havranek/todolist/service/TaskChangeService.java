@@ -0,0 +1,15 @@
+package com.havranek.todolist.service;
+
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+
+public interface TaskChangeService {
+
+    /**
+     * Endless stream of store changes as "change" server-sent events carrying a
+     * {@link com.havranek.todolist.repository.TaskChange}, starting after lastEventId, or with the next
+     * change when it is null. A "reset" event tells the client that changes were lost (too old, or the
+     * id is from an earlier run) and it has to reload the tasks before applying further changes.
+     */
+    Flux<ServerSentEvent<?>> streamChanges(String lastEventId);
+}
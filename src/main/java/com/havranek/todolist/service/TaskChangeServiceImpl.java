@@ -0,0 +1,107 @@
+package com.havranek.todolist.service;
+
+import com.havranek.todolist.repository.Repository;
+import com.havranek.todolist.repository.TaskChange;
+import com.havranek.todolist.repository.TaskChanges;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tails the repository change feed. Writers only publish into the feed and never wake anyone, so
+ * every subscriber polls it; a poll with nothing new is one volatile read. Event ids are
+ * "instance.sequence", sequences start again after a restart and an id of another run means reset.
+ * A keepalive comment goes out every heartbeat interval, so a client gone from an idle store is
+ * noticed on the failed write and its subscription ends.
+ */
+@Service
+public class TaskChangeServiceImpl implements TaskChangeService {
+
+    private static final String CHANGE_EVENT = "change";
+    private static final String RESET_EVENT = "reset";
+    private static final String RESET_MESSAGE = "Changes were lost, reload the tasks";
+    private static final ServerSentEvent<?> KEEPALIVE = ServerSentEvent.builder().comment("keepalive").build();
+
+    private final Repository repository;
+    private final Duration pollInterval;
+    private final Duration heartbeatInterval;
+    private final int batchSize;
+    private final String instanceTag = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+
+    @Autowired
+    public TaskChangeServiceImpl(Repository repository,
+                                 @Value("${todolist.changes.poll-millis:100}") long pollMillis,
+                                 @Value("${todolist.changes.batch-size:1000}") int batchSize,
+                                 @Value("${todolist.changes.heartbeat-millis:15000}") long heartbeatMillis) {
+        this.repository = repository;
+        this.pollInterval = Duration.ofMillis(pollMillis);
+        this.heartbeatInterval = Duration.ofMillis(heartbeatMillis);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public Flux<ServerSentEvent<?>> streamChanges(String lastEventId) {
+        return Flux.defer(() -> {
+            Long resumeAfter = resumeSequence(lastEventId);
+            long[] cursor = {resumeAfter == null ? repository.modificationCount() : resumeAfter};
+            Flux<ServerSentEvent<?>> changes = Flux.interval(Duration.ZERO, pollInterval)
+                    // a slow client skips polls, the cursor makes sure it still gets every change
+                    .onBackpressureDrop()
+                    .concatMapIterable(tick -> poll(cursor), 1);
+            if (lastEventId != null && resumeAfter == null){
+                changes = Flux.concat(Flux.just(reset(cursor[0])), changes);
+            }
+            Flux<ServerSentEvent<?>> heartbeats = Flux.interval(heartbeatInterval, heartbeatInterval)
+                    .onBackpressureDrop()
+                    .map(tick -> KEEPALIVE);
+            return Flux.merge(changes, heartbeats);
+        });
+    }
+
+    private List<ServerSentEvent<?>> poll(long[] cursor) {
+        TaskChanges read = repository.findChangesAfter(cursor[0], batchSize);
+        List<ServerSentEvent<?>> events = new ArrayList<>(read.changes().size() + 1);
+        if (read.gap()){
+            events.add(reset(read.changes().isEmpty() ? cursor[0] : read.changes().get(0).sequence() - 1));
+        }
+        for (TaskChange change : read.changes()){
+            events.add(ServerSentEvent.builder(change)
+                    .id(instanceTag + "." + change.sequence())
+                    .event(CHANGE_EVENT)
+                    .build());
+            cursor[0] = change.sequence();
+        }
+        return events;
+    }
+
+    /** Sequence to resume after, null when the id is missing or not from this run. */
+    private Long resumeSequence(String lastEventId){
+        if (lastEventId == null){
+            return null;
+        }
+        int separator = lastEventId.lastIndexOf('.');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(instanceTag)){
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** Carries data, browsers drop events without it, and an id to resume from after reloading. */
+    private ServerSentEvent<String> reset(long sequence){
+        return ServerSentEvent.builder(RESET_MESSAGE)
+                .id(instanceTag + "." + sequence)
+                .event(RESET_EVENT)
+                .build();
+    }
+}
@@ -0,0 +1,11 @@
+package com.havranek.todolist.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface TaskExporter {
+
+    void exportCSV(OutputStream out) throws IOException;
+
+    void exportNDJSON(OutputStream out) throws IOException;
+}
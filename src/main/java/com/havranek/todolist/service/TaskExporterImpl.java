@@ -0,0 +1,85 @@
+package com.havranek.todolist.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.havranek.todolist.model.entity.Task;
+import com.havranek.todolist.repository.Repository;
+import com.opencsv.CSVWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Component
+public class TaskExporterImpl implements TaskExporter {
+
+    private static final String[] CSV_HEADER = {"id", "title", "status", "created", "deadline", "finished", "description"};
+
+    private final Repository repository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter taskWriter;
+
+    @Autowired
+    public TaskExporterImpl(Repository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.taskWriter = objectMapper.writerFor(Task.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    public void exportCSV(OutputStream out) throws IOException {
+        CSVWriter writer = new CSVWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        writer.writeNext(CSV_HEADER);
+
+        try (Stream<Task> tasks = repository.streamAll()) {
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                Task task = iterator.next();
+                writer.writeNext(new String[]{
+                        Long.toString(task.getId()),
+                        task.getTitle(),
+                        task.getStatus().name(),
+                        format(task.getCreated()),
+                        format(task.getDeadline()),
+                        format(task.getFinished()),
+                        task.getDescription()
+                });
+            }
+        }
+        writer.flush();
+    }
+
+    @Override
+    public void exportNDJSON(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+
+        boolean written = false;
+        try (Stream<Task> tasks = repository.streamAll()) {
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                taskWriter.writeValue(generator, iterator.next());
+                written = true;
+            }
+        }
+        if (written) {
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    private static String format(LocalDate date) {
+        return date == null ? null : date.toString();
+    }
+}
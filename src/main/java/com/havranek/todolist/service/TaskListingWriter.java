@@ -0,0 +1,14 @@
+package com.havranek.todolist.service;
+
+import com.havranek.todolist.model.dto.TaskCursorListing;
+import com.havranek.todolist.model.dto.TaskPageListing;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface TaskListingWriter {
+
+    void writePage(TaskPageListing listing, OutputStream out) throws IOException;
+
+    void writeCursorPage(TaskCursorListing listing, OutputStream out) throws IOException;
+}
@@ -0,0 +1,159 @@
+package com.havranek.todolist.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.havranek.todolist.model.dto.TaskCursorListing;
+import com.havranek.todolist.model.dto.TaskPageListing;
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes listings field by field to a {@link JsonGenerator} instead of mapping every task to a
+ * {@code TaskAllDTO} and letting Jackson serialize a {@code PageImpl}. Field names and status names are
+ * encoded once, deadlines come from a cache of encoded ISO dates, so a page costs the generator and
+ * almost nothing per task. The output is the same JSON the DTOs produced.
+ */
+@Component
+public class TaskListingWriterImpl implements TaskListingWriter {
+
+    private static final int MAX_CACHED_DATES = 10_000;
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString DEADLINE = new SerializedString("deadline");
+    private static final SerializableString[] STATUS_NAMES = statusNames();
+
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<LocalDate, SerializableString> dates = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TaskListingWriterImpl(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void writePage(TaskPageListing listing, OutputStream out) throws IOException {
+        List<Task> tasks = listing.tasks();
+        Pageable pageable = listing.pageable();
+        // same numbers as PageImpl, which corrects the total on a short last page
+        long total = !tasks.isEmpty() && pageable.getOffset() + pageable.getPageSize() > listing.totalElements()
+                ? pageable.getOffset() + tasks.size()
+                : listing.totalElements();
+        int size = pageable.getPageSize();
+        int number = pageable.getPageNumber();
+        int totalPages = size == 0 ? 1 : (int) Math.ceil((double) total / size);
+
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.writeStartObject();
+            writeContent(generator, tasks);
+            generator.writeFieldName("pageable");
+            generator.writeStartObject();
+            generator.writeNumberField("pageNumber", number);
+            generator.writeNumberField("pageSize", size);
+            writeSort(generator, pageable.getSort());
+            generator.writeNumberField("offset", pageable.getOffset());
+            generator.writeBooleanField("paged", true);
+            generator.writeBooleanField("unpaged", false);
+            generator.writeEndObject();
+            generator.writeBooleanField("last", number + 1 >= totalPages);
+            generator.writeNumberField("totalPages", totalPages);
+            generator.writeNumberField("totalElements", total);
+            generator.writeBooleanField("first", number == 0);
+            generator.writeNumberField("size", size);
+            generator.writeNumberField("number", number);
+            writeSort(generator, pageable.getSort());
+            generator.writeNumberField("numberOfElements", tasks.size());
+            generator.writeBooleanField("empty", tasks.isEmpty());
+            generator.writeEndObject();
+        }
+    }
+
+    @Override
+    public void writeCursorPage(TaskCursorListing listing, OutputStream out) throws IOException {
+        try (JsonGenerator generator = createGenerator(out)) {
+            generator.writeStartObject();
+            writeContent(generator, listing.tasks());
+            generator.writeNumberField("size", listing.tasks().size());
+            generator.writeStringField("nextCursor", listing.nextCursor());
+            generator.writeEndObject();
+        }
+    }
+
+    /** The generator returns its buffers on close but must leave the response stream open. */
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
+
+    private void writeContent(JsonGenerator generator, List<Task> tasks) throws IOException {
+        generator.writeFieldName(CONTENT);
+        generator.writeStartArray();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            generator.writeStartObject();
+            generator.writeFieldName(ID);
+            generator.writeNumber(task.getId());
+            generator.writeFieldName(TITLE);
+            generator.writeString(task.getTitle());
+            generator.writeFieldName(STATUS);
+            if (task.getStatus() == null) {
+                generator.writeNull();
+            } else {
+                generator.writeString(STATUS_NAMES[task.getStatus().ordinal()]);
+            }
+            generator.writeFieldName(DEADLINE);
+            if (task.getDeadline() == null) {
+                generator.writeNull();
+            } else {
+                generator.writeString(date(task.getDeadline()));
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeSort(JsonGenerator generator, Sort sort) throws IOException {
+        generator.writeFieldName("sort");
+        generator.writeStartObject();
+        generator.writeBooleanField("empty", sort.isEmpty());
+        generator.writeBooleanField("sorted", sort.isSorted());
+        generator.writeBooleanField("unsorted", sort.isUnsorted());
+        generator.writeEndObject();
+    }
+
+    /** Deadlines cluster around today, a bounded cache covers decades of them. */
+    private SerializableString date(LocalDate date) {
+        SerializableString cached = dates.get(date);
+        if (cached != null) {
+            return cached;
+        }
+        SerializableString encoded = new SerializedString(date.toString());
+        if (dates.size() < MAX_CACHED_DATES) {
+            dates.putIfAbsent(date, encoded);
+        }
+        return encoded;
+    }
+
+    private static SerializableString[] statusNames() {
+        Status[] statuses = Status.values();
+        SerializableString[] names = new SerializableString[statuses.length];
+        for (Status status : statuses) {
+            names[status.ordinal()] = new SerializedString(status.name());
+        }
+        return names;
+    }
+}
@@ -1,18 +1,35 @@
 package com.havranek.todolist.service;
 
+import com.havranek.todolist.model.dto.BatchResult;
+import com.havranek.todolist.model.dto.DeadlineStats;
+import com.havranek.todolist.model.dto.LeadTimeStats;
 import com.havranek.todolist.model.dto.SolvedPerDay;
+import com.havranek.todolist.model.dto.StatusStats;
 import com.havranek.todolist.model.dto.TaskAllDTO;
 import com.havranek.todolist.model.dto.TaskCreateDTO;
+import com.havranek.todolist.model.dto.TaskCursorListing;
+import com.havranek.todolist.model.dto.TaskFilterRequest;
+import com.havranek.todolist.model.dto.TaskPageListing;
 import com.havranek.todolist.model.entity.Task;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
 
 public interface TaskService {
 
     Task getOne(long id);
 
-    Page<TaskAllDTO> getAll(Pageable pageable);
+    TaskPageListing getAll(Pageable pageable);
+
+    TaskPageListing getAll(Pageable pageable, TaskFilterRequest filterRequest);
+
+    TaskCursorListing getAllAfter(String cursor, int size);
+
+    Flux<TaskAllDTO> streamAll(TaskFilterRequest filterRequest);
+
+    TaskPageListing search(String query, Pageable pageable);
 
     Task update(Task task);
 
@@ -20,13 +37,32 @@ public interface TaskService {
 
     void createByEntity(Task task);
 
-    Page<TaskAllDTO> importCreateCSV(MultipartFile file);
+    BatchResult createAll(List<TaskCreateDTO> dtos);
+
+    BatchResult updateAll(List<Task> tasks);
 
-    Page<TaskAllDTO> importExistCSV(MultipartFile file);
+    BatchResult deleteAll(List<Long> ids);
 
     Page<SolvedPerDay> getSolvedSummary(Pageable pageable);
 
     SolvedPerDay getSolvedPerDay(String getDate);
 
+    Flux<SolvedPerDay> streamSolvedSummary();
+
+    /** Completion rates: tasks created in the range by status. Both dates are optional. */
+    StatusStats getStatusStats(String from, String to);
+
+    /** Average lead time of tasks completed in the range. */
+    LeadTimeStats getLeadTimeStats(String from, String to);
+
+    /** Share of tasks due in the range that were not completed by their deadline. */
+    DeadlineStats getDeadlineStats(String from, String to);
+
+    /** Strong ETag shared by every list and summary read, it changes with any write to the store. */
+    String getStoreETag();
+
+    /** Strong ETag of one task, it changes whenever the task is saved. */
+    String getTaskETag(Task task);
+
     void deleteById(long id);
 }
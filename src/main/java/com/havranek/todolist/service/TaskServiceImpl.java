@@ -1,31 +1,51 @@
 package com.havranek.todolist.service;
 
 import com.havranek.todolist.exceptions.EntityNotFound;
+import com.havranek.todolist.exceptions.VersionConflict;
 import com.havranek.todolist.mapper.TaskMapper;
+import com.havranek.todolist.model.dto.BatchItemResult;
+import com.havranek.todolist.model.dto.BatchResult;
+import com.havranek.todolist.model.dto.DeadlineStats;
+import com.havranek.todolist.model.dto.LeadTimeStats;
 import com.havranek.todolist.model.dto.SolvedPerDay;
+import com.havranek.todolist.model.dto.StatusStats;
 import com.havranek.todolist.model.dto.TaskAllDTO;
 import com.havranek.todolist.model.dto.TaskCreateDTO;
+import com.havranek.todolist.model.dto.TaskCursorListing;
+import com.havranek.todolist.model.dto.TaskFilterRequest;
+import com.havranek.todolist.model.dto.TaskPageListing;
 import com.havranek.todolist.model.entity.Status;
 import com.havranek.todolist.model.entity.Task;
+import com.havranek.todolist.model.messages.ErrorValidationField;
+import com.havranek.todolist.repository.DeadlineOutcomes;
+import com.havranek.todolist.repository.LeadTime;
 import com.havranek.todolist.repository.Repository;
-import com.opencsv.CSVReader;
-import com.opencsv.exceptions.CsvValidationException;
+import com.havranek.todolist.repository.StatusCounts;
+import com.havranek.todolist.repository.TaskFilter;
+import com.havranek.todolist.repository.TaskSearchResult;
 import jakarta.validation.ConstraintViolation;
-import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
 
-import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -33,15 +53,23 @@ import java.util.Set;
 @Service
 public class TaskServiceImpl implements TaskService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 2000;
+    private static final Set<Status> OPEN_STATUSES = EnumSet.of(Status.CREATED, Status.IN_PROCESS);
+
     private Repository repository;
     private TaskMapper taskMapper;
     private Validator validator;
+    private int maxBatchSize;
+    // tags of an earlier run (or another instance) never match, its counters started elsewhere
+    private final String instanceTag = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
 
     @Autowired
-    public TaskServiceImpl(Repository repository, TaskMapper taskMapper, Validator validator) {
+    public TaskServiceImpl(Repository repository, TaskMapper taskMapper, Validator validator,
+                           @Value("${todolist.batch.max-size:10000}") int maxBatchSize) {
         this.repository = repository;
         this.taskMapper = taskMapper;
         this.validator = validator;
+        this.maxBatchSize = maxBatchSize;
     }
 
     @Override
@@ -51,26 +79,62 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
-    public Page<TaskAllDTO> getAll(Pageable pageable) {
-        List<TaskAllDTO> dtoList = repository.findAll()
-                .stream()
-                .map(taskMapper::mapTaskToAllDTO)
-                .toList();
+    public TaskPageListing getAll(Pageable pageable) {
+        List<Task> tasks = repository.findPage(pageable.getOffset(), pageable.getPageSize());
+        return new TaskPageListing(tasks, pageable, repository.count());
+    }
+
+    @Override
+    public TaskPageListing getAll(Pageable pageable, TaskFilterRequest filterRequest) {
+        TaskFilter filter = toFilter(filterRequest, LocalDate.now());
+        if (filter.isEmpty()){
+            return getAll(pageable);
+        }
+        List<Task> tasks = repository.findFiltered(filter, pageable.getOffset(), pageable.getPageSize());
+        return new TaskPageListing(tasks, pageable, repository.countFiltered(filter));
+    }
+
+    @Override
+    public TaskCursorListing getAllAfter(String cursor, int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE){
+            throw new IllegalArgumentException("Size has to be in range 1-" + MAX_CURSOR_PAGE_SIZE);
+        }
+        long afterId = cursor == null || cursor.isBlank() ? 0 : decodeCursor(cursor);
+
+        List<Task> tasks = repository.findAfter(afterId, size + 1);
+        if (tasks.size() <= size){
+            return new TaskCursorListing(tasks, null);
+        }
+        List<Task> page = tasks.subList(0, size);
+        return new TaskCursorListing(page, encodeCursor(page.get(size - 1).getId()));
+    }
 
-        return transformListToPageable(dtoList, pageable);
+    @Override
+    public Flux<TaskAllDTO> streamAll(TaskFilterRequest filterRequest) {
+        TaskFilter filter = toFilter(filterRequest, LocalDate.now());
+        // every subscriber opens its own repository stream and pulls it only as fast as it consumes
+        return Flux.fromStream(() -> repository.streamFiltered(filter))
+                .map(taskMapper::mapTaskToAllDTO);
+    }
 
+    @Override
+    public TaskPageListing search(String query, Pageable pageable) {
+        if (query == null || query.isBlank()){
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        TaskSearchResult result = repository.search(query, pageable.getOffset(), pageable.getPageSize());
+        return new TaskPageListing(result.tasks(), pageable, result.totalMatches());
     }
 
     @Override
     public Task update(Task task) {
-        Task dbTask = getOne(task.getId());
-        dbTask.setTitle(task.getTitle());
-        dbTask.setStatus(task.getStatus());
-        dbTask.setCreated(task.getCreated());
-        dbTask.setDeadline(task.getDeadline());
-        dbTask.setFinished(task.getFinished());
-        dbTask.setDescription(task.getDescription());
-        return repository.save(task);
+        // checked and saved in one write section, a task deleted meanwhile is not re-created
+        List<Task> updated = repository.updateExisting(List.of(task));
+        if (updated.isEmpty()){
+            getOne(task.getId());
+            throw new VersionConflict();
+        }
+        return updated.get(0);
     }
 
     @Override
@@ -85,70 +149,89 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
-    public Page<TaskAllDTO> importCreateCSV(MultipartFile file) {
-
-        try (CSVReader reader = new CSVReader(new InputStreamReader(
-                file.getInputStream(), StandardCharsets.UTF_8))){
+    public BatchResult createAll(List<TaskCreateDTO> dtos) {
+        checkBatchSize(dtos);
+        BatchItemResult[] results = new BatchItemResult[dtos.size()];
+        List<Task> valid = new ArrayList<>(dtos.size());
+        List<Integer> validIndexes = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++){
+            TaskCreateDTO dto = dtos.get(i);
+            List<ErrorValidationField> errors = validate(dto);
+            if (!errors.isEmpty()){
+                results[i] = invalid(i, null, errors);
+            } else {
+                valid.add(taskMapper.mapCreateDTOToTask(dto));
+                validIndexes.add(i);
+            }
+        }
 
-            String[] oneRow;
-            boolean isHeader = true;
+        List<Task> saved = repository.saveAll(valid);
+        for (int i = 0; i < saved.size(); i++){
+            int index = validIndexes.get(i);
+            results[index] = new BatchItemResult(index, HttpStatus.CREATED.value(), saved.get(i).getId(), null, null);
+        }
+        return toBatchResult(results);
+    }
 
-            while ((oneRow = reader.readNext())!= null){
-                if (isHeader){
-                    isHeader = false;
-                    continue;
-                }
-                TaskCreateDTO newDTO = new TaskCreateDTO(oneRow[0],
-                        LocalDate.parse(oneRow[1]), oneRow[2]);
+    @Override
+    public BatchResult updateAll(List<Task> tasks) {
+        checkBatchSize(tasks);
+        BatchItemResult[] results = new BatchItemResult[tasks.size()];
+        List<Task> valid = new ArrayList<>(tasks.size());
+        List<Integer> validIndexes = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++){
+            Task task = tasks.get(i);
+            List<ErrorValidationField> errors = validate(task);
+            if (!errors.isEmpty()){
+                results[i] = invalid(i, task == null ? null : task.getId(), errors);
+            } else {
+                valid.add(task);
+                validIndexes.add(i);
+            }
+        }
 
-                Set<ConstraintViolation<TaskCreateDTO>> violations = validator.validate(newDTO);
-                if (!violations.isEmpty()) {
-                    throw new ConstraintViolationException(violations);
-                }
-                create(newDTO);
+        Set<Long> updatedIds = new HashSet<>();
+        for (Task task : repository.updateExisting(valid)){
+            updatedIds.add(task.getId());
+        }
+        for (int i = 0; i < valid.size(); i++){
+            int index = validIndexes.get(i);
+            long id = valid.get(i).getId();
+            if (updatedIds.contains(id)){
+                results[index] = new BatchItemResult(index, HttpStatus.OK.value(), id, null, null);
+            } else if (repository.findById(id).isPresent()){
+                results[index] = conflict(index, id);
+            } else {
+                results[index] = notFound(index, id);
             }
-            Pageable defaultPageable = PageRequest.of(0, 20);
-            return getAll(defaultPageable);
-        } catch (IOException | CsvValidationException e) {
-            throw new RuntimeException(e);
         }
+        return toBatchResult(results);
     }
 
     @Override
-    public Page<TaskAllDTO> importExistCSV(MultipartFile file) {
-        try (CSVReader reader = new CSVReader(new InputStreamReader(
-                file.getInputStream(), StandardCharsets.UTF_8))){
-
-            String[] oneRow;
-            boolean isHeader = true;
-
-            while ((oneRow = reader.readNext())!= null){
-                if (isHeader){
-                    isHeader = false;
-                    continue;
-                }
-                Task task = new Task(
-                        Long.parseLong(oneRow[0]),
-                        oneRow[1],
-                        Status.valueOf(oneRow[2].toUpperCase()),
-                        LocalDate.parse(oneRow[3]),
-                        LocalDate.parse(oneRow[4]),
-                        LocalDate.parse(oneRow[5]),
-                        oneRow[6]
-                );
-
-                Set<ConstraintViolation<Task>> violations = validator.validate(task);
-                if (!violations.isEmpty()) {
-                    throw new ConstraintViolationException(violations);
-                }
+    public BatchResult deleteAll(List<Long> ids) {
+        checkBatchSize(ids);
+        BatchItemResult[] results = new BatchItemResult[ids.size()];
+        List<Long> requested = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++){
+            if (ids.get(i) == null){
+                results[i] = new BatchItemResult(i, HttpStatus.BAD_REQUEST.value(), null, "Id is required", null);
+            } else {
+                requested.add(ids.get(i));
+            }
+        }
 
-                createByEntity(task);
+        Set<Long> deletedIds = repository.deleteAllById(requested);
+        for (int i = 0; i < ids.size(); i++){
+            Long id = ids.get(i);
+            if (results[i] == null){
+                // a repeated id was deleted by its first occurrence
+                results[i] = deletedIds.remove(id)
+                        ? new BatchItemResult(i, HttpStatus.NO_CONTENT.value(), id, null, null)
+                        : notFound(i, id);
             }
-            Pageable defaultPageable = PageRequest.of(0, 20);
-            return getAll(defaultPageable);
-        } catch (CsvValidationException | IOException e) {
-            throw new RuntimeException(e);
         }
+        return toBatchResult(results);
     }
 
     @Override
@@ -173,11 +256,150 @@ public class TaskServiceImpl implements TaskService {
         return new SolvedPerDay(getDate, solved);
     }
 
+    @Override
+    public Flux<SolvedPerDay> streamSolvedSummary() {
+        return Flux.defer(() -> Flux.fromIterable(repository.findSolvedThrewDays().entrySet()))
+                .map(entrySet -> new SolvedPerDay(entrySet.getKey().toString(), entrySet.getValue()));
+    }
+
+    @Override
+    public StatusStats getStatusStats(String from, String to) {
+        StatusCounts counts = repository.countCreatedByStatus(parseDay(from), parseDay(to));
+        Map<Status, Double> rates = new EnumMap<>(Status.class);
+        counts.byStatus().forEach((status, count) -> rates.put(status, ratio(count, counts.total())));
+        return new StatusStats(from, to, counts.total(), counts.byStatus(), rates);
+    }
+
+    @Override
+    public LeadTimeStats getLeadTimeStats(String from, String to) {
+        LeadTime leadTime = repository.sumLeadTime(parseDay(from), parseDay(to));
+        return new LeadTimeStats(from, to, leadTime.completed(), ratio(leadTime.totalDays(), leadTime.completed()));
+    }
+
+    @Override
+    public DeadlineStats getDeadlineStats(String from, String to) {
+        DeadlineOutcomes outcomes = repository.countDeadlineOutcomes(parseDay(from), parseDay(to), LocalDate.now());
+        return new DeadlineStats(from, to, outcomes.due(), outcomes.missed(), ratio(outcomes.missed(), outcomes.due()));
+    }
+
+    @Override
+    public String getStoreETag() {
+        return instanceTag + "-" + repository.modificationCount();
+    }
+
+    @Override
+    public String getTaskETag(Task task) {
+        return instanceTag + "-" + task.getId() + "-" + task.getVersion();
+    }
+
     @Override
     public void deleteById(long id) {
         repository.deleteById(id);
     }
 
+    private void checkBatchSize(List<?> batch){
+        if (batch == null || batch.isEmpty() || batch.size() > maxBatchSize){
+            throw new IllegalArgumentException("Batch size has to be in range 1-" + maxBatchSize);
+        }
+    }
+
+    private <T> List<ErrorValidationField> validate(T item){
+        if (item == null){
+            return List.of(new ErrorValidationField("item", "Required"));
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(item);
+        return violations.stream()
+                .map(violation -> new ErrorValidationField(violation.getPropertyPath().toString(), violation.getMessage()))
+                .sorted(Comparator.comparing(ErrorValidationField::field)
+                        .thenComparing(ErrorValidationField::message))
+                .toList();
+    }
+
+    private static BatchItemResult invalid(int index, Long id, List<ErrorValidationField> errors){
+        return new BatchItemResult(index, HttpStatus.BAD_REQUEST.value(), id, "Validation failed", errors);
+    }
+
+    private static BatchItemResult notFound(int index, long id){
+        return new BatchItemResult(index, HttpStatus.NOT_FOUND.value(), id, "Entity not found", null);
+    }
+
+    private static BatchItemResult conflict(int index, long id){
+        return new BatchItemResult(index, HttpStatus.CONFLICT.value(), id, "Version conflict", null);
+    }
+
+    private static BatchResult toBatchResult(BatchItemResult[] results){
+        int succeeded = 0;
+        for (BatchItemResult result : results){
+            if (result.status() < HttpStatus.BAD_REQUEST.value()){
+                succeeded++;
+            }
+        }
+        return new BatchResult(succeeded, results.length - succeeded, List.of(results));
+    }
+
+    private TaskFilter toFilter(TaskFilterRequest request, LocalDate today){
+        Set<Status> statuses = request.status() == null ? null : EnumSet.of(request.status());
+        LocalDate deadlineFrom = request.deadlineFrom();
+        LocalDate deadlineTo = request.deadlineTo();
+
+        if (request.due() != null){
+            // only tasks still being worked on can be overdue or due
+            statuses = statuses == null ? EnumSet.copyOf(OPEN_STATUSES) : intersect(statuses, OPEN_STATUSES);
+            switch (request.due()) {
+                case OVERDUE -> deadlineTo = earlier(deadlineTo, today.minusDays(1));
+                case THIS_WEEK -> {
+                    deadlineFrom = later(deadlineFrom, today);
+                    deadlineTo = earlier(deadlineTo, today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY)));
+                }
+            }
+        }
+
+        return new TaskFilter(statuses, deadlineFrom, deadlineTo, request.finishedFrom(), request.finishedTo());
+    }
+
+    private static Set<Status> intersect(Set<Status> statuses, Set<Status> allowed){
+        Set<Status> result = EnumSet.copyOf(allowed);
+        result.retainAll(statuses);
+        return result;
+    }
+
+    private static LocalDate later(LocalDate first, LocalDate second){
+        if (first == null || second == null){
+            return first == null ? second : first;
+        }
+        return first.isAfter(second) ? first : second;
+    }
+
+    private static LocalDate earlier(LocalDate first, LocalDate second){
+        if (first == null || second == null){
+            return first == null ? second : first;
+        }
+        return first.isBefore(second) ? first : second;
+    }
+
+    private static LocalDate parseDay(String day){
+        return day == null || day.isBlank() ? null : LocalDate.parse(day);
+    }
+
+    /** Null when there is nothing to divide by, so an empty range does not read as a 0 % rate. */
+    private static Double ratio(long part, long whole){
+        return whole == 0 ? null : (double) part / whole;
+    }
+
+    private String encodeCursor(long lastId){
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long decodeCursor(String cursor){
+        try {
+            byte[] decoded = Base64.getUrlDecoder().decode(cursor);
+            return Long.parseLong(new String(decoded, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
     private<T> Page<T> transformListToPageable(List<T> taskList, Pageable pageable){
         int pageSize = pageable.getPageSize();
         int currentPage = pageable.getPageNumber();
@@ -0,0 +1,234 @@
+package com.havranek.todolist;
+
+import com.havranek.todolist.exceptions.VersionConflict;
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+import com.havranek.todolist.repository.DbInMemory;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DbInMemoryConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int TASKS_PER_THREAD = 2_000;
+    private static final int UPDATES_PER_TASK = 5;
+    private static final int VIRTUAL_WRITERS = 1_000;
+
+    private DbInMemory repository;
+
+    @BeforeEach
+    public void setupEmptyDb() {
+        repository = new DbInMemory();
+        repository.clearDb();
+    }
+
+    @Test
+    public void concurrentInsertsAreNotLost() throws Exception {
+        List<List<Task>> created = runConcurrently(threadIndex -> {
+            List<Task> own = new ArrayList<>();
+            for (int i = 0; i < TASKS_PER_THREAD; i++) {
+                own.add(repository.save(newTask(threadIndex + "-" + i)));
+            }
+            return own;
+        });
+
+        Set<Long> ids = new HashSet<>();
+        created.forEach(list -> list.forEach(task -> ids.add(task.getId())));
+
+        assertEquals(THREADS * TASKS_PER_THREAD, ids.size());
+        assertEquals(THREADS * TASKS_PER_THREAD, repository.findAll().size());
+        ids.forEach(id -> assertTrue(repository.findById(id).isPresent()));
+    }
+
+    @Test
+    public void concurrentUpdatesKeepLastWrite() throws Exception {
+        List<List<Task>> created = runConcurrently(threadIndex -> {
+            List<Task> own = new ArrayList<>();
+            for (int i = 0; i < TASKS_PER_THREAD; i++) {
+                Task task = repository.save(newTask(threadIndex + "-" + i));
+                for (int update = 1; update <= UPDATES_PER_TASK; update++) {
+                    Task changed = newTask(threadIndex + "-" + i + "-" + update);
+                    changed.setId(task.getId());
+                    task = repository.save(changed);
+                }
+                own.add(task);
+            }
+            return own;
+        });
+
+        assertEquals(THREADS * TASKS_PER_THREAD, repository.findAll().size());
+        for (List<Task> own : created) {
+            for (Task expected : own) {
+                Task stored = repository.findById(expected.getId()).orElseThrow();
+                assertTrue(stored.getTitle().endsWith("-" + UPDATES_PER_TASK));
+                assertEquals(expected.getTitle(), stored.getTitle());
+            }
+        }
+    }
+
+    @Test
+    public void versionedReadModifyWriteLosesNoUpdate() throws Exception {
+        long id = repository.save(newTask("0")).getId();
+
+        runConcurrently(threadIndex -> {
+            for (int i = 0; i < UPDATES_PER_TASK * 100; i++) {
+                while (true) {
+                    Task current = repository.findById(id).orElseThrow();
+                    Task incremented = newTask(Integer.toString(Integer.parseInt(current.getTitle()) + 1));
+                    incremented.setId(id);
+                    incremented.setVersion(current.getVersion());
+                    try {
+                        repository.save(incremented);
+                        break;
+                    } catch (VersionConflict e) {
+                        // another thread saved first, read the new version and retry
+                    }
+                }
+            }
+            return null;
+        });
+
+        Task stored = repository.findById(id).orElseThrow();
+        assertEquals(THREADS * UPDATES_PER_TASK * 100, Integer.parseInt(stored.getTitle()));
+        assertEquals(THREADS * UPDATES_PER_TASK * 100 + 1, stored.getVersion());
+        assertThrows(UnsupportedOperationException.class, () -> stored.setTitle("changed in place"));
+    }
+
+    @Test
+    public void readersNeverFailWhileWritersDelete() throws Exception {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(2);
+        Future<Long> reads = readers.submit(() -> {
+            long seen = 0;
+            while (writing.get()) {
+                seen += repository.findAll().stream()
+                        .filter(task -> task.getStatus() == Status.CREATED)
+                        .count();
+            }
+            return seen;
+        });
+
+        List<List<Task>> remaining = runConcurrently(threadIndex -> {
+            List<Task> kept = new ArrayList<>();
+            for (int i = 0; i < TASKS_PER_THREAD; i++) {
+                Task task = repository.save(newTask(threadIndex + "-" + i));
+                if (i % 2 == 0) {
+                    repository.deleteById(task.getId());
+                } else {
+                    kept.add(task);
+                }
+            }
+            return kept;
+        });
+        writing.set(false);
+        reads.get(30, TimeUnit.SECONDS);
+        readers.shutdown();
+
+        int expected = remaining.stream().mapToInt(List::size).sum();
+        assertEquals(expected, repository.findAll().size());
+    }
+
+    @Test
+    public void virtualThreadWritersAreNotPinned() throws Exception {
+        List<RecordedEvent> pinned;
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            recording.start();
+
+            List<Future<?>> writers = new ArrayList<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int t = 0; t < VIRTUAL_WRITERS; t++) {
+                    int writer = t;
+                    writers.add(executor.submit(() -> {
+                        for (int i = 0; i < 20; i++) {
+                            Task task = repository.save(newTask(writer + "-" + i));
+                            if (i % 4 == 0) {
+                                repository.deleteById(task.getId());
+                            }
+                        }
+                    }));
+                }
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+
+            recording.stop();
+            Path dump = Files.createTempFile("virtual-writers", ".jfr");
+            try {
+                recording.dump(dump);
+                pinned = RecordingFile.readAllEvents(dump);
+            } finally {
+                Files.deleteIfExists(dump);
+            }
+        }
+
+        assertTrue(pinned.isEmpty(), () -> "Writers pinned their carrier thread: " + pinned);
+        assertEquals(VIRTUAL_WRITERS * 15, repository.count());
+    }
+
+    private <T> List<T> runConcurrently(ThreadWork<T> work) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int threadIndex = t;
+                Callable<T> callable = () -> {
+                    start.await();
+                    return work.run(threadIndex);
+                };
+                futures.add(executor.submit(callable));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Task newTask(String title) {
+        return new Task(
+                -1,
+                title,
+                Status.CREATED,
+                LocalDate.of(2025, 7, 1),
+                LocalDate.of(2025, 8, 1),
+                null,
+                "Stress test task " + title
+        );
+    }
+
+    @FunctionalInterface
+    private interface ThreadWork<T> {
+        T run(int threadIndex);
+    }
+}
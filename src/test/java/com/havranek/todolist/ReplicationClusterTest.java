@@ -0,0 +1,123 @@
+package com.havranek.todolist;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** A leader and two followers on localhost, each its own application context on a random port. */
+public class ReplicationClusterTest {
+
+    private static final Duration VISIBLE_WITHIN = Duration.ofSeconds(10);
+
+    private static ConfigurableApplicationContext leader;
+    private static List<ConfigurableApplicationContext> followers;
+    private static HttpClient client;
+
+    @BeforeAll
+    public static void startNodes() {
+        leader = start("--todolist.replication.role=leader");
+        String leaderUrl = baseUrl(leader);
+        followers = List.of(
+                start("--todolist.replication.role=follower", "--todolist.replication.leader-url=" + leaderUrl),
+                start("--todolist.replication.role=follower", "--todolist.replication.leader-url=" + leaderUrl));
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    public static void stopNodes() {
+        client.close();
+        followers.forEach(ConfigurableApplicationContext::close);
+        leader.close();
+    }
+
+    @Test
+    public void writesOnLeaderBecomeVisibleOnEveryFollower() throws Exception {
+        HttpResponse<String> created = send(leader, "/api/task", "POST", newTaskJson("Replicated"));
+        assertEquals(201, created.statusCode());
+        String taskPath = URI.create(created.headers().firstValue("Location").orElseThrow()).getPath();
+
+        for (ConfigurableApplicationContext follower : followers) {
+            await(() -> get(follower, taskPath).statusCode() == 200);
+            assertTrue(get(follower, taskPath).body().contains("\"title\":\"Replicated\""));
+        }
+
+        assertEquals(204, send(leader, taskPath, "DELETE", null).statusCode());
+        for (ConfigurableApplicationContext follower : followers) {
+            await(() -> get(follower, taskPath).statusCode() == 404);
+        }
+    }
+
+    @Test
+    public void followersRejectWritesAndReportNoLag() throws Exception {
+        for (ConfigurableApplicationContext follower : followers) {
+            assertEquals(503, send(follower, "/api/task", "POST", newTaskJson("Not here")).statusCode());
+
+            MeterRegistry meterRegistry = follower.getBean(MeterRegistry.class);
+            await(() -> get(follower, "/actuator/health").statusCode() == 200
+                    && meterRegistry.get("todolist.replication.lag").gauge().value() == 0);
+            assertTrue(meterRegistry.get("todolist.replication.lag.time").gauge().value() < VISIBLE_WITHIN.toSeconds());
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String... replicationArgs) {
+        String[] args = new String[replicationArgs.length + 5];
+        args[0] = "--server.port=0";
+        args[1] = "--spring.main.banner-mode=off";
+        args[2] = "--logging.level.root=WARN";
+        args[3] = "--todolist.persistence.enabled=false";
+        args[4] = "--todolist.replication.poll-millis=20";
+        System.arraycopy(replicationArgs, 0, args, 5, replicationArgs.length);
+        return new SpringApplicationBuilder(TodolistApplication.class).run(args);
+    }
+
+    private static String baseUrl(ConfigurableApplicationContext node) {
+        return "http://localhost:" + ((WebServerApplicationContext) node).getWebServer().getPort();
+    }
+
+    private static HttpResponse<String> get(ConfigurableApplicationContext node, String path) {
+        try {
+            return send(node, path, "GET", null);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static HttpResponse<String> send(ConfigurableApplicationContext node, String path, String method,
+                                             String json) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl(node) + path))
+                .header("Content-Type", "application/json")
+                .method(method, json == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(json));
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + VISIBLE_WITHIN.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Not replicated within " + VISIBLE_WITHIN);
+            Thread.sleep(20);
+        }
+    }
+
+    private static String newTaskJson(String title) {
+        return "{\"title\":\"" + title + "\",\"deadline\":\"" + LocalDate.now().plusYears(1)
+                + "\",\"description\":\"Written through the leader\"}";
+    }
+}
@@ -1,25 +1,47 @@
 package com.havranek.todolist;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.havranek.todolist.model.dto.TaskAllDTO;
 import com.havranek.todolist.model.dto.TaskCreateDTO;
 import com.havranek.todolist.model.entity.Status;
 import com.havranek.todolist.model.entity.Task;
 import com.havranek.todolist.repository.Repository;
+import com.havranek.todolist.repository.TaskChange;
+import com.havranek.todolist.repository.TaskChangeType;
+import com.havranek.todolist.service.TaskChangeService;
+import com.havranek.todolist.service.TaskChangeServiceImpl;
 import com.havranek.todolist.service.TaskService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -34,12 +56,18 @@ public class TaskControllerTest {
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskChangeService taskChangeService;
+
     @Autowired
     private MockMvc mockMvc;
 
     @Autowired
     ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     public void setupTestData() {
         repository.clearDb();
@@ -105,6 +133,20 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.error", is("Entity not found")));
     }
 
+    @Test
+    public void getOneRequestFailedIsMetered() throws Exception {
+        double notFoundBefore = meterRegistry.get("todolist.errors.entity.not.found").counter().count();
+        long findByIdBefore = meterRegistry.get("todolist.repository").tag("method", "findById").timer().count();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/{id}", 100))
+                .andExpect(status().isNotFound());
+
+        assertEquals(notFoundBefore + 1, meterRegistry.get("todolist.errors.entity.not.found").counter().count());
+        assertEquals(findByIdBefore + 1, meterRegistry.get("todolist.repository").tag("method", "findById").timer().count());
+        assertEquals(1, meterRegistry.get("todolist.store.tasks").tag("status", "COMPLETED").gauge().value());
+        assertEquals(3, meterRegistry.get("todolist.store.size").gauge().value());
+    }
+
     @Test
     public void getAllRequestSuccess() throws Exception {
 
@@ -121,6 +163,296 @@ public class TaskControllerTest {
 
     }
 
+    @Test
+    public void getAllSecondPageSuccess() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/all")
+                        .param("page", "1")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(3)))
+                .andExpect(jsonPath("$.totalElements", is(3)))
+                .andExpect(jsonPath("$.totalPages", is(2)))
+                .andExpect(jsonPath("$.last", is(true)));
+
+    }
+
+    @Test
+    public void getAllFilteredByStatusSuccess() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/all")
+                        .param("status", "IN_PROCESS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(2)))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+
+    }
+
+    @Test
+    public void getAllFilteredOverdueSuccess() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/all")
+                        .param("due", "OVERDUE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].id", is(1)))
+                .andExpect(jsonPath("$.content[1].id", is(2)))
+                .andExpect(jsonPath("$.totalElements", is(2)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/all")
+                        .param("due", "THIS_WEEK"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(0)));
+
+    }
+
+    @Test
+    public void getAllFilteredByDeadlineFollowsUpdates() throws Exception {
+        Task moved = repository.findById(1).orElseThrow();
+        repository.save(new Task(moved.getId(), moved.getTitle(), Status.COMPLETED, moved.getCreated(),
+                LocalDate.of(2025, 7, 5), LocalDate.of(2025, 7, 4), moved.getDescription()));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/all")
+                        .param("deadlineFrom", "2025-07-01")
+                        .param("deadlineTo", "2025-07-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].id", is(1)))
+                .andExpect(jsonPath("$.content[1].id", is(3)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/all")
+                        .param("finishedFrom", "2025-07-04")
+                        .param("finishedTo", "2025-07-04")
+                        .param("status", "COMPLETED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements", is(2)));
+
+        repository.deleteById(3);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/all")
+                        .param("deadlineTo", "2025-07-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(1)));
+
+    }
+
+    @Test
+    public void getAllFilteredInvalidStatusFailed() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/all")
+                        .param("status", "DONE"))
+                .andExpect(status().isBadRequest());
+
+    }
+
+    @Test
+    public void getSearchSuccess() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/search")
+                        .param("q", "feedback"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(3)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/search")
+                        .param("q", "doc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].title", is("Write documentation")));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/search")
+                        .param("q", "feature test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(2)))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+
+    }
+
+    @Test
+    public void getSearchRanksTitleFirstAndFollowsUpdates() throws Exception {
+        repository.save(new Task(-1, "Meeting notes", Status.CREATED, LocalDate.of(2025, 7, 20),
+                LocalDate.of(2025, 8, 20), null, "Notes for the code review meeting."));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/search")
+                        .param("q", "review"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].id", is(3)))
+                .andExpect(jsonPath("$.content[1].id", is(4)));
+
+        repository.deleteById(4);
+        Task renamed = repository.findById(3).orElseThrow();
+        repository.save(new Task(3, "Code check", renamed.getStatus(), renamed.getCreated(),
+                renamed.getDeadline(), renamed.getFinished(), "Check the codebase."));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/search")
+                        .param("q", "review"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(0)))
+                .andExpect(jsonPath("$.totalElements", is(0)));
+
+    }
+
+    @Test
+    public void getSearchEmptyQueryFailed() throws Exception {
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/search")
+                        .param("q", " "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Search query must not be empty")));
+
+    }
+
+    @Test
+    public void getAllCursorSuccess() throws Exception {
+
+        String firstPage = mockMvc.perform(MockMvcRequestBuilders.get("/api/task/all/cursor")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.content[0].id", is(1)))
+                .andExpect(jsonPath("$.content[1].id", is(2)))
+                .andExpect(jsonPath("$.nextCursor", notNullValue()))
+                .andReturn().getResponse().getContentAsString();
+
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/all/cursor")
+                        .param("after", cursor)
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].id", is(3)))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/all/cursor")
+                        .param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid cursor")));
+    }
+
+    @Test
+    public void getAllWritesSameJsonAsSerializedDtoPage() throws Exception {
+        repository.save(new Task(0, "No status", null, LocalDate.of(2025, 7, 20), null, null, null));
+        List<TaskAllDTO> lastPage = repository.findPage(2, 2).stream()
+                .map(task -> new TaskAllDTO(task.getId(), task.getTitle(), task.getStatus(), task.getDeadline()))
+                .toList();
+        String expected = objectMapper.writeValueAsString(
+                new PageImpl<>(lastPage, PageRequest.of(1, 2, Sort.by("title")), repository.count()));
+
+        String written = mockMvc.perform(MockMvcRequestBuilders.get("/api/task/all")
+                        .param("page", "1")
+                        .param("size", "2")
+                        .param("sort", "title"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+
+        // Jackson's order of PageImpl getters depends on the JVM, compare the trees
+        assertEquals(objectMapper.readTree(expected), objectMapper.readTree(written));
+    }
+
+    @Test
+    public void getAllAnswersNotModifiedUntilStoreChanges() throws Exception {
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get("/api/task/all").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        long findPageBefore = meterRegistry.get("todolist.repository").tag("method", "findPage").timer().count();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/all").param("size", "2")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/solved/all")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        assertEquals(findPageBefore, meterRegistry.get("todolist.repository").tag("method", "findPage").timer().count());
+
+        repository.deleteById(3);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/all").param("size", "2")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+                .andExpect(jsonPath("$.totalElements", is(2)));
+    }
+
+    @Test
+    public void dueFilterGetsNoStoreETag() throws Exception {
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get("/api/task/all"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/all").param("due", "OVERDUE")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void getOneAnswersNotModifiedUntilTaskChanges() throws Exception {
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get("/api/task/{id}", 1))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        Task other = repository.findById(2).orElseThrow();
+        repository.save(new Task(other.getId(), "Implement feature Y", other.getStatus(), other.getCreated(),
+                other.getDeadline(), null, other.getDescription()));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/{id}", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        Task task = repository.findById(1).orElseThrow();
+        repository.save(new Task(task.getId(), "Write more documentation", task.getStatus(), task.getCreated(),
+                task.getDeadline(), null, task.getDescription()));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/{id}", 1)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("Write more documentation")));
+    }
+
+    @Test
+    public void changeStreamDeliversWritesAndResumes() throws Exception {
+        CompletableFuture<List<ServerSentEvent<?>>> live = taskChangeService.streamChanges(null)
+                .take(2)
+                .collectList()
+                .toFuture();
+
+        repository.deleteById(2);
+        Task task = repository.findById(1).orElseThrow();
+        repository.save(new Task(task.getId(), task.getTitle(), Status.IN_PROCESS, task.getCreated(),
+                task.getDeadline(), null, task.getDescription()));
+
+        List<ServerSentEvent<?>> events = live.get(5, TimeUnit.SECONDS);
+        assertEquals("change", events.get(0).event());
+        assertEquals(new TaskChange(repository.modificationCount() - 1, 2, TaskChangeType.DELETED,
+                Status.IN_PROCESS, null), events.get(0).data());
+        TaskChange updated = (TaskChange) events.get(1).data();
+        assertEquals(TaskChangeType.UPDATED, updated.type());
+        assertEquals(Status.IN_PROCESS, updated.statusAfter());
+
+        ServerSentEvent<?> resumed = taskChangeService.streamChanges(events.get(0).id())
+                .blockFirst(Duration.ofSeconds(5));
+        assertEquals(events.get(1).id(), resumed.id());
+        ServerSentEvent<?> reset = taskChangeService.streamChanges("earlier-run.42")
+                .blockFirst(Duration.ofSeconds(5));
+        assertEquals("reset", reset.event());
+    }
+
+    @Test
+    public void idleChangeStreamSendsKeepalive() {
+        TaskChangeService heartbeating = new TaskChangeServiceImpl(repository, 100, 1000, 50);
+
+        ServerSentEvent<?> first = heartbeating.streamChanges(null).blockFirst(Duration.ofSeconds(5));
+        assertEquals("keepalive", first.comment());
+        assertNull(first.event());
+    }
+
     @Test
     public void getAllRequestFailed() throws Exception {
 
@@ -156,6 +488,51 @@ public class TaskControllerTest {
     }
 
 
+    @Test
+    public void getSolvedPerDayFollowsUpdates() throws Exception{
+        String completedPayload = """
+                {
+                  "id": 1,
+                  "title": "Write documentation",
+                  "status": "COMPLETED",
+                  "created": "2025-07-10",
+                  "deadline": "2025-08-01",
+                  "finished": "2025-07-04",
+                  "description": "Write detailed project documentation covering all modules."
+                }
+                """;
+
+        mockMvc.perform(put("/api/task")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(completedPayload))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/solved/{day}", "2025-07-04"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.countOfSolved", is(2)));
+
+        String reopenedPayload = completedPayload
+                .replace("\"COMPLETED\"", "\"IN_PROCESS\"")
+                .replace("\"finished\": \"2025-07-04\"", "\"finished\": null");
+
+        mockMvc.perform(put("/api/task")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(reopenedPayload))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/solved/all"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].day", is("2025-07-04")))
+                .andExpect(jsonPath("$.content[0].countOfSolved", is(1)));
+
+        repository.deleteById(3);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/solved/all"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(0)));
+    }
+
     @Test
     public void getSolvedPerDayFailed() throws Exception{
         mockMvc.perform(MockMvcRequestBuilders.get("/api/task/solved/{day}", "2025-07-48"))
@@ -165,6 +542,48 @@ public class TaskControllerTest {
 
     }
 
+    @Test
+    public void getStatsSuccess() throws Exception{
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/stats/status").param("from", "2025-07-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total", is(2)))
+                .andExpect(jsonPath("$.counts.CREATED", is(1)))
+                .andExpect(jsonPath("$.counts.IN_PROCESS", is(1)))
+                .andExpect(jsonPath("$.counts.COMPLETED", is(0)))
+                .andExpect(jsonPath("$.rates.CREATED", is(0.5)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/stats/lead-time"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed", is(1)))
+                .andExpect(jsonPath("$.averageDays", is(4.0)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/stats/deadlines")
+                        .param("from", "2025-07-01")
+                        .param("to", "2025-07-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.due", is(1)))
+                .andExpect(jsonPath("$.missed", is(0)))
+                .andExpect(jsonPath("$.missRate", is(0.0)));
+
+        repository.deleteById(2);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/stats/deadlines"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.due", is(2)))
+                .andExpect(jsonPath("$.missed", is(1)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/stats/lead-time").param("to", "2025-07-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed", is(0)))
+                .andExpect(jsonPath("$.averageDays", nullValue()));
+    }
+
+    @Test
+    public void getStatsInvalidDateFailed() throws Exception{
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/stats/status").param("from", "2025-13-01"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void postCreateNewRequestSuccess() throws Exception {
 
@@ -215,6 +634,133 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.error", is("Invalid input: Text '11-11-2025' could not be parsed at index 0")));
     }
 
+    @Test
+    public void postImportNewCsvReportsRejectedRows() throws Exception {
+        String deadline = LocalDate.now().plusDays(10).toString();
+        String csv = "title,deadline,description\n"
+                + "Import one," + deadline + ",First imported task\n"
+                + "Import two,2025-13-01,Row with broken date\n"
+                + "Import three," + deadline + ",Third imported task\n";
+        MockMultipartFile file = new MockMultipartFile("file", "tasks.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8));
+
+        String submitted = mockMvc.perform(multipart("/api/task/csv/new").file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.id", notNullValue()))
+                .andReturn().getResponse().getContentAsString();
+        String jobId = objectMapper.readTree(submitted).get("id").asText();
+
+        awaitImportJob(jobId);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/csv/jobs/{jobId}", jobId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.state", is("COMPLETED")))
+                .andExpect(jsonPath("$.processedRows", is(3)))
+                .andExpect(jsonPath("$.importedRows", is(2)))
+                .andExpect(jsonPath("$.rejectedRows", is(1)))
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0].row", is(3)));
+
+        assertTrue(repository.findById(4).isPresent());
+        assertTrue(repository.findById(5).isPresent());
+        assertFalse(repository.findById(6).isPresent());
+    }
+
+    @Test
+    public void getImportJobFailed() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/task/csv/jobs/{jobId}", "unknown"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error", is("Import job not found")));
+    }
+
+    @Test
+    public void getExportCsvSuccess() throws Exception {
+        MvcResult export = mockMvc.perform(MockMvcRequestBuilders.get("/api/task/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string(startsWith("\"id\",\"title\",\"status\"")))
+                .andExpect(content().string(containsString(
+                        "\"3\",\"Code review\",\"COMPLETED\",\"2025-06-30\",\"2025-07-05\",\"2025-07-04\"")))
+                .andExpect(content().string(containsString(
+                        "\"1\",\"Write documentation\",\"CREATED\",\"2025-07-10\",\"2025-08-01\",,")));
+    }
+
+    @Test
+    public void getExportNdjsonSuccess() throws Exception {
+        MvcResult export = mockMvc.perform(MockMvcRequestBuilders.get("/api/task/export").param("format", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(export))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.trim().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("Implement feature X", objectMapper.readTree(lines[1]).get("title").asText());
+    }
+
+    @Test
+    public void getStreamAllFilteredSuccess() throws Exception {
+        MvcResult stream = mockMvc.perform(MockMvcRequestBuilders.get("/api/task/stream/all").param("status", "IN_PROCESS"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(stream))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.trim().split("\n");
+        assertEquals(1, lines.length);
+        assertEquals(2, objectMapper.readTree(lines[0]).get("id").asLong());
+    }
+
+    @Test
+    public void getStreamSolvedSuccess() throws Exception {
+        MvcResult stream = mockMvc.perform(MockMvcRequestBuilders.get("/api/task/stream/solved"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(stream))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals("{\"day\":\"2025-07-04\",\"countOfSolved\":1}", body.trim());
+    }
+
+    @Test
+    public void postStreamCsvImportsLineByLine() throws Exception {
+        String deadline = LocalDate.now().plusYears(1).toString();
+        String csv = "title,deadline,description\n"
+                + "Prepare release," + deadline + ",Prepare the next release.\n"
+                + "\n"
+                + "X," + deadline + ",Too short title.\n"
+                + "Plan sprint," + deadline + ",\"Plan the next sprint, with the team.\"\n";
+
+        MvcResult upload = mockMvc.perform(post("/api/task/stream/csv/new")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(upload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processedRows", is(3)))
+                .andExpect(jsonPath("$.importedRows", is(2)))
+                .andExpect(jsonPath("$.rejectedRows", is(1)))
+                .andExpect(jsonPath("$.errors[0].row", is(4)));
+
+        assertEquals("Plan the next sprint, with the team.", repository.findById(5).orElseThrow().getDescription());
+    }
+
     @Test
     public void putUpdateRequestSuccess() throws Exception{
 
@@ -289,6 +835,39 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.error", is("Invalid status. Allowed values: CREATED, IN_PROCESS, COMPLETED, FAILED.")));
 
     }
+    @Test
+    public void putUpdateWithStaleVersionIsConflict() throws Exception{
+        String jsonPayload = """
+                {
+                  "id": 1,
+                  "title": "Write documentation",
+                  "status": "IN_PROCESS",
+                  "created": "2025-07-10",
+                  "deadline": "2025-08-01",
+                  "description": "Write detailed project documentation covering all modules.",
+                  "version": 1
+                }
+                """;
+
+        mockMvc.perform(put("/api/task")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonPayload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("IN_PROCESS")))
+                .andExpect(jsonPath("$.version", is(2)));
+
+        mockMvc.perform(put("/api/task")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonPayload.replace("IN_PROCESS", "FAILED")))
+                .andExpect(status().isConflict())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status", is(409)));
+
+        Task stored = repository.findById(1).orElseThrow();
+        assertEquals(Status.IN_PROCESS, stored.getStatus());
+        assertEquals(2, stored.getVersion());
+    }
+
     @Test
     public void putDeleteRequestSuccess() throws Exception{
         assertTrue(repository.findById(1).isPresent());
@@ -307,4 +886,119 @@ public class TaskControllerTest {
     }
 
 
+    @Test
+    public void postBatchCreateReportsEachItem() throws Exception {
+        String deadline = LocalDate.now().plusDays(10).toString();
+        String jsonPayload = """
+                [
+                  {"title": "Prepare release", "deadline": "%s", "description": "Prepare the next release."},
+                  {"title": "X", "deadline": "%s", "description": "Too short title."},
+                  {"title": "Plan sprint", "deadline": "%s", "description": "Plan the next sprint."}
+                ]
+                """.formatted(deadline, deadline, deadline);
+
+        mockMvc.perform(post("/api/task/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonPayload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded", is(2)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.items[0].status", is(201)))
+                .andExpect(jsonPath("$.items[0].id", is(4)))
+                .andExpect(jsonPath("$.items[1].status", is(400)))
+                .andExpect(jsonPath("$.items[1].listOfErrors[0].field", is("title")))
+                .andExpect(jsonPath("$.items[2].status", is(201)))
+                .andExpect(jsonPath("$.items[2].id", is(5)));
+
+        assertEquals("Plan sprint", repository.findById(5).orElseThrow().getTitle());
+        assertEquals(5, repository.count());
+    }
+
+    @Test
+    public void putBatchUpdateReportsMissingTasks() throws Exception {
+        String jsonPayload = """
+                [
+                  {"id": 1, "title": "Write documentation", "status": "COMPLETED", "created": "2025-07-10",
+                   "deadline": "2025-08-01", "finished": "2025-07-30", "description": "Write detailed project documentation."},
+                  {"id": 100, "title": "Missing task", "status": "CREATED", "created": "2025-07-10",
+                   "deadline": "2025-08-01", "description": "This task does not exist."}
+                ]
+                """;
+
+        mockMvc.perform(put("/api/task/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonPayload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.items[0].status", is(200)))
+                .andExpect(jsonPath("$.items[1].status", is(404)))
+                .andExpect(jsonPath("$.items[1].error", is("Entity not found")));
+
+        assertEquals(Status.COMPLETED, repository.findById(1).orElseThrow().getStatus());
+        assertFalse(repository.findById(100).isPresent());
+    }
+
+    @Test
+    public void putBatchUpdateReportsStaleVersions() throws Exception {
+        String jsonPayload = """
+                [
+                  {"id": 1, "title": "Write documentation", "status": "COMPLETED", "created": "2025-07-10",
+                   "deadline": "2025-08-01", "finished": "2025-07-30", "description": "Write detailed project documentation.",
+                   "version": 1},
+                  {"id": 2, "title": "Implement feature X", "status": "FAILED", "created": "2025-07-15",
+                   "deadline": "2025-08-15", "description": "Develop and test the new feature X.", "version": 7}
+                ]
+                """;
+
+        mockMvc.perform(put("/api/task/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonPayload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.items[0].status", is(200)))
+                .andExpect(jsonPath("$.items[1].status", is(409)))
+                .andExpect(jsonPath("$.items[1].error", is("Version conflict")));
+
+        assertEquals(2, repository.findById(1).orElseThrow().getVersion());
+        assertEquals(Status.IN_PROCESS, repository.findById(2).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void deleteBatchReportsEachItem() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/task/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 100, 3, 1]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded", is(2)))
+                .andExpect(jsonPath("$.failed", is(2)))
+                .andExpect(jsonPath("$.items[*].status", contains(204, 404, 204, 404)));
+
+        assertFalse(repository.findById(1).isPresent());
+        assertFalse(repository.findById(3).isPresent());
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    public void deleteBatchEmptyFailed() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/task/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", startsWith("Batch size has to be in range 1-")));
+    }
+
+    private void awaitImportJob(String jobId) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            String body = mockMvc.perform(MockMvcRequestBuilders.get("/api/task/csv/jobs/{jobId}", jobId))
+                    .andReturn().getResponse().getContentAsString();
+            String state = objectMapper.readTree(body).get("state").asText();
+            if (state.equals("COMPLETED") || state.equals("FAILED")) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Import job " + jobId + " did not finish");
+    }
 }
@@ -0,0 +1,57 @@
+package com.havranek.todolist.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IdLocationMapTest {
+
+    private final IdLocationMap map = new IdLocationMap();
+
+    @Test
+    public void matchesHashMapUnderRandomChanges() {
+        Random random = new Random(42);
+        Map<Long, Long> expected = new HashMap<>();
+
+        for (int i = 1; i <= 50_000; i++) {
+            // mostly new ids, deletes leave tombstones that rebuilds have to drop
+            long id = random.nextInt(10) < 7 ? i : random.nextInt(i) + 1;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.getOrDefault(id, 0L), map.remove(id));
+                expected.remove(id);
+            } else {
+                long location = random.nextLong(1, Long.MAX_VALUE);
+                assertEquals(expected.getOrDefault(id, 0L), map.put(id, location));
+                expected.put(id, location);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long id = 1; id <= 50_000; id++) {
+            assertEquals(expected.getOrDefault(id, 0L), map.get(id));
+        }
+    }
+
+    @Test
+    public void removedIdCanBeStoredAgain() {
+        map.put(7, 100);
+
+        assertEquals(100, map.remove(7));
+        assertEquals(0, map.get(7));
+        assertEquals(0, map.remove(7));
+        assertEquals(0, map.put(7, 200));
+        assertEquals(200, map.get(7));
+        assertEquals(1, map.size());
+
+        map.clear();
+        assertEquals(0, map.get(7));
+        assertEquals(0, map.size());
+        assertThrows(IllegalArgumentException.class, () -> map.put(0, 100));
+        assertThrows(IllegalArgumentException.class, () -> map.put(7, 0));
+    }
+}
@@ -0,0 +1,84 @@
+package com.havranek.todolist.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IdPostingsTest {
+
+    @Test
+    public void matchesSortedSetUnderRandomChanges() {
+        Random random = new Random(42);
+        TreeSet<Long> expected = new TreeSet<>();
+        IdPostings postings = IdPostings.EMPTY;
+
+        for (int i = 0; i < 20_000; i++) {
+            // mostly increasing ids like the id generator, sometimes older ones
+            long id = random.nextInt(10) < 7 ? i : random.nextInt(i + 1);
+            if (random.nextInt(4) == 0) {
+                postings = postings.without(id);
+                expected.remove(id);
+            } else {
+                postings = postings.with(id);
+                expected.add(id);
+            }
+        }
+
+        assertEquals(expected.size(), postings.size());
+        assertEquals(new ArrayList<>(expected), toList(postings));
+        for (long id = 0; id < 20_000; id += 7) {
+            assertEquals(expected.contains(id), postings.contains(id));
+        }
+    }
+
+    @Test
+    public void olderInstancesDoNotChange() {
+        IdPostings postings = IdPostings.EMPTY;
+        for (long id = 1; id <= 300; id++) {
+            postings = postings.with(id);
+        }
+        IdPostings before = postings;
+
+        postings = postings.with(301).with(302).without(5).without(300);
+
+        assertEquals(300, before.size());
+        assertTrue(before.contains(5));
+        assertFalse(before.contains(301));
+        assertEquals(300, toList(before).size());
+        assertEquals(300, postings.size());
+        assertFalse(postings.contains(5));
+        assertTrue(postings.contains(302));
+        assertEquals(0, IdPostings.EMPTY.size());
+    }
+
+    @Test
+    public void iteratesFromAnyIdAcrossBlocks() {
+        IdPostings postings = IdPostings.EMPTY;
+        TreeSet<Long> expected = new TreeSet<>();
+        for (long id = 2; id <= 2_000; id += 2) {
+            postings = postings.with(id);
+            expected.add(id);
+        }
+
+        for (long after = 0; after <= 2_002; after += 37) {
+            List<Long> iterated = new ArrayList<>();
+            postings.iteratorAfter(after).forEachRemaining((long id) -> iterated.add(id));
+            assertEquals(new ArrayList<>(expected.tailSet(after, false)), iterated);
+        }
+        assertEquals(2_000, postings.last());
+        assertFalse(IdPostings.EMPTY.iteratorAfter(0).hasNext());
+    }
+
+    private static List<Long> toList(IdPostings postings) {
+        List<Long> ids = new ArrayList<>();
+        postings.forEach(ids::add);
+        return ids;
+    }
+}
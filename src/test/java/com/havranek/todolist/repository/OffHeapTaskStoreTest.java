@@ -0,0 +1,119 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OffHeapTaskStoreTest {
+
+    private final OffHeapTaskStore store = new OffHeapTaskStore();
+
+    @Test
+    public void storedTaskIsMaterializedOnRead() {
+        store.put(new Task(7, "Úkol č. 7", Status.COMPLETED, LocalDate.of(2025, 7, 1),
+                LocalDate.of(2025, 8, 1), LocalDate.of(2025, 7, 15), "Popis úkolu"));
+        store.put(new Task(8, "Bez popisu", null, LocalDate.of(2025, 7, 1), null, null, null));
+
+        Task seven = store.get(7);
+        assertEquals(7, seven.getId());
+        assertEquals("Úkol č. 7", seven.getTitle());
+        assertEquals(Status.COMPLETED, seven.getStatus());
+        assertEquals(LocalDate.of(2025, 7, 1), seven.getCreated());
+        assertEquals(LocalDate.of(2025, 8, 1), seven.getDeadline());
+        assertEquals(LocalDate.of(2025, 7, 15), seven.getFinished());
+        assertEquals("Popis úkolu", seven.getDescription());
+
+        Task eight = store.get(8);
+        assertNull(eight.getStatus());
+        assertNull(eight.getDeadline());
+        assertNull(eight.getFinished());
+        assertNull(eight.getDescription());
+        assertNull(store.get(9));
+        assertEquals(8, store.lastId());
+    }
+
+    @Test
+    public void putReplacesAndRemoveDeletes() {
+        store.put(newTask(1, "First"));
+        Task previous = store.put(newTask(1, "First updated"));
+        store.put(newTask(2, "Second"));
+        store.put(newTask(3, "Third"));
+
+        assertEquals("First", previous.getTitle());
+        assertEquals("Second", store.remove(2).getTitle());
+        assertNull(store.remove(2));
+        assertFalse(store.contains(2));
+        assertTrue(store.contains(3));
+        assertEquals(List.of("First updated", "Third"), titles(store.streamAfter(0).toList()));
+        assertEquals(List.of("Third"), titles(store.streamAfter(1).toList()));
+
+        store.clear();
+        assertEquals(0, store.streamAfter(0).count());
+        assertEquals(0, store.lastId());
+    }
+
+    @Test
+    public void compactionKeepsLiveTasks() {
+        for (long id = 1; id <= 100; id++) {
+            store.put(newTask(id, "Task " + id));
+        }
+        for (int round = 1; round <= 1_000; round++) {
+            for (long id = 1; id <= 100; id++) {
+                store.put(newTask(id, "Task " + id + " v" + round));
+            }
+        }
+        for (long id = 1; id <= 100; id += 2) {
+            store.remove(id);
+        }
+
+        List<Task> tasks = store.streamAfter(0).toList();
+        assertEquals(50, tasks.size());
+        tasks.forEach(task -> assertEquals("Task " + task.getId() + " v1000", task.getTitle()));
+    }
+
+    @Test
+    public void writesDuringIncrementalCompactionAreKept() {
+        // one record short of the compaction threshold, the copy of 200 ids in chunks of 8 then takes 25 writes
+        OffHeapTaskStore chunked = new OffHeapTaskStore(8);
+        Map<Long, String> expected = new TreeMap<>();
+        for (int i = 0; i < (1 << 16) - 1; i++) {
+            long id = i % 200 + 1;
+            chunked.put(newTask(id, "Task " + id));
+            expected.put(id, "Task " + id);
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 60; i++) {
+            long id = random.nextInt(200) + 1;
+            if (random.nextInt(4) == 0) {
+                chunked.remove(id);
+                expected.remove(id);
+            } else {
+                chunked.put(newTask(id, "Task " + id + " write " + i));
+                expected.put(id, "Task " + id + " write " + i);
+            }
+        }
+
+        List<Task> tasks = chunked.streamAfter(0).toList();
+        assertEquals(List.copyOf(expected.keySet()), tasks.stream().map(Task::getId).toList());
+        assertEquals(List.copyOf(expected.values()), titles(tasks));
+    }
+
+    private static List<String> titles(List<Task> tasks) {
+        return tasks.stream().map(Task::getTitle).toList();
+    }
+
+    private static Task newTask(long id, String title) {
+        return new Task(id, title, Status.CREATED, LocalDate.of(2025, 7, 1), LocalDate.of(2025, 8, 1), null, "Description " + title);
+    }
+}
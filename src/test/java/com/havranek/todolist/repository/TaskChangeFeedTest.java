@@ -0,0 +1,101 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskChangeFeedTest {
+
+    @Test
+    public void repositoryPublishesEveryWrite() {
+        DbInMemory repository = new DbInMemory(new HeapTaskStore(), Optional.empty(), 16);
+        repository.clearDb();
+        long start = repository.modificationCount();
+
+        Task created = repository.save(newTask(Status.CREATED));
+        Task finished = newTask(Status.COMPLETED);
+        finished.setId(created.getId());
+        repository.save(finished);
+        repository.deleteById(created.getId());
+
+        TaskChanges read = repository.findChangesAfter(start, 10);
+        assertFalse(read.gap());
+        assertEquals(List.of(
+                new TaskChange(start + 1, created.getId(), TaskChangeType.CREATED, null, Status.CREATED),
+                new TaskChange(start + 2, created.getId(), TaskChangeType.UPDATED, Status.CREATED, Status.COMPLETED),
+                new TaskChange(start + 3, created.getId(), TaskChangeType.DELETED, Status.COMPLETED, null)
+        ), read.changes());
+        assertEquals(start + 3, repository.modificationCount());
+        assertTrue(repository.findChangesAfter(start + 3, 10).changes().isEmpty());
+        assertEquals(1, repository.findChangesAfter(start, 1).changes().size());
+    }
+
+    @Test
+    public void overwrittenChangesAreReportedAsGap() {
+        TaskChangeFeed feed = new TaskChangeFeed(8);
+        for (long id = 1; id <= 20; id++) {
+            feed.publish(TaskChangeType.CREATED, id, null, Status.CREATED, null);
+        }
+
+        TaskChanges read = feed.readAfter(3, 100);
+        assertTrue(read.gap());
+        assertEquals(8, read.changes().size());
+        assertEquals(13, read.changes().get(0).sequence());
+        assertEquals(20, read.changes().get(7).id());
+
+        TaskChanges resumed = feed.readAfter(16, 100);
+        assertFalse(resumed.gap());
+        assertEquals(4, resumed.changes().size());
+        assertTrue(feed.readAfter(21, 100).gap());
+    }
+
+    @Test
+    public void readersNeverSeeTornChanges() throws Exception {
+        TaskChangeFeed feed = new TaskChangeFeed(64);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        Future<Long> checked = reader.submit(() -> {
+            long seen = 0;
+            long after = 0;
+            while (writing.get()) {
+                for (TaskChange change : feed.readAfter(after, 32).changes()) {
+                    // the writer derives every field from the sequence
+                    assertEquals(change.sequence() * 3, change.id());
+                    assertEquals(statusFor(change.sequence()), change.statusAfter());
+                    after = change.sequence();
+                    seen++;
+                }
+            }
+            return seen;
+        });
+
+        for (long sequence = 1; sequence <= 2_000_000; sequence++) {
+            feed.publish(TaskChangeType.UPDATED, sequence * 3, null, statusFor(sequence), null);
+        }
+        writing.set(false);
+        assertTrue(checked.get(30, TimeUnit.SECONDS) > 0);
+        reader.shutdown();
+    }
+
+    private static Status statusFor(long sequence) {
+        return Status.values()[(int) (sequence % Status.values().length)];
+    }
+
+    private static Task newTask(Status status) {
+        return new Task(-1, "Feed task", status, LocalDate.of(2025, 7, 1), LocalDate.of(2025, 8, 1),
+                status == Status.COMPLETED ? LocalDate.of(2025, 7, 20) : null, null);
+    }
+}
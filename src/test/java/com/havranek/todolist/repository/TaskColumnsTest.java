@@ -0,0 +1,96 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskColumnsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 7, 1);
+
+    private final TaskColumns columns = new TaskColumns();
+
+    @Test
+    public void aggregatesFollowPutsRemovesAndGrowth() {
+        for (long id = 1; id <= 5_000; id++) {
+            columns.put(task(id, id % 2 == 0 ? Status.COMPLETED : Status.CREATED, DAY.plusDays(id % 10)));
+        }
+        columns.put(new Task(5_001, "No status", null, null, null, null, null));
+
+        StatusCounts all = columns.countCreatedByStatus(null, null);
+        assertEquals(5_001, all.total());
+        assertEquals(2_500, all.byStatus().get(Status.COMPLETED));
+        assertEquals(2_500, all.byStatus().get(Status.CREATED));
+        assertEquals(0, all.byStatus().get(Status.FAILED));
+        // a range leaves out the task without a created date
+        assertEquals(1_000, columns.countCreatedByStatus(DAY, DAY.plusDays(1)).total());
+
+        // completed ids are even, created on day id % 10 and finished 3 days later
+        LeadTime leadTime = columns.sumLeadTime(null, null);
+        assertEquals(2_500, leadTime.completed());
+        assertEquals(7_500, leadTime.totalDays());
+
+        columns.remove(2);
+        columns.put(task(4, Status.FAILED, DAY));
+        assertEquals(2_498, columns.sumLeadTime(null, null).completed());
+        assertEquals(1, columns.countCreatedByStatus(null, null).byStatus().get(Status.FAILED));
+
+        columns.clear();
+        assertEquals(0, columns.countCreatedByStatus(null, null).total());
+    }
+
+    @Test
+    public void deadlineMissedWhenCompletedLateOrStillOpenAfterIt() {
+        LocalDate deadline = DAY.plusDays(10);
+        columns.put(new Task(1, "On time", Status.COMPLETED, DAY, deadline, deadline, null));
+        columns.put(new Task(2, "Late", Status.COMPLETED, DAY, deadline, deadline.plusDays(1), null));
+        columns.put(new Task(3, "Open", Status.IN_PROCESS, DAY, deadline, null, null));
+        columns.put(new Task(4, "Failed", Status.FAILED, DAY, deadline, null, null));
+        columns.put(new Task(5, "No deadline", Status.CREATED, DAY, null, null, null));
+
+        assertEquals(new DeadlineOutcomes(4, 1), columns.countDeadlineOutcomes(null, null, deadline));
+        assertEquals(new DeadlineOutcomes(4, 3), columns.countDeadlineOutcomes(null, null, deadline.plusDays(1)));
+        assertEquals(new DeadlineOutcomes(0, 0), columns.countDeadlineOutcomes(deadline.plusDays(1), null, deadline));
+    }
+
+    @Test
+    public void queriesDuringWritesNeverMixFieldsOfARow() throws Exception {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        Future<Long> checked = reader.submit(() -> {
+            long queries = 0;
+            while (writing.get()) {
+                // both versions of a row take 3 days, a mix of them takes 13 or -7
+                LeadTime leadTime = columns.sumLeadTime(null, null);
+                assertEquals(leadTime.completed() * 3, leadTime.totalDays());
+                queries++;
+            }
+            return queries;
+        });
+
+        for (int round = 0; round < 40; round++) {
+            LocalDate created = round % 2 == 0 ? DAY : DAY.plusDays(10);
+            for (long id = 1; id <= 50_000; id++) {
+                columns.put(task(id, Status.COMPLETED, created));
+            }
+        }
+        writing.set(false);
+        assertTrue(checked.get(30, TimeUnit.SECONDS) > 0);
+        reader.shutdown();
+    }
+
+    private static Task task(long id, Status status, LocalDate created) {
+        LocalDate finished = status == Status.COMPLETED ? created.plusDays(3) : null;
+        return new Task(id, "Task " + id, status, created, created.plusDays(5), finished, null);
+    }
+}
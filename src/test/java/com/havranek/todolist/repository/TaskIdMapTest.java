@@ -0,0 +1,65 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TaskIdMapTest {
+
+    private final TaskIdMap map = new TaskIdMap();
+
+    @Test
+    public void matchesHashMapUnderRandomChanges() {
+        Random random = new Random(42);
+        Map<Long, Task> expected = new HashMap<>();
+
+        for (int i = 1; i <= 50_000; i++) {
+            // mostly new ids, deletes leave tombstones that rebuilds have to drop
+            long id = random.nextInt(10) < 7 ? i : random.nextInt(i) + 1;
+            if (random.nextInt(3) == 0) {
+                assertSame(expected.remove(id), map.remove(id));
+            } else {
+                Task task = task(id);
+                assertSame(expected.put(id, task), map.put(id, task));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long id = 1; id <= 50_000; id++) {
+            assertSame(expected.get(id), map.get(id));
+        }
+    }
+
+    @Test
+    public void removedIdCanBeStoredAgain() {
+        Task first = task(7);
+        Task second = task(7);
+        map.put(7, first);
+
+        assertSame(first, map.remove(7));
+        assertNull(map.get(7));
+        assertNull(map.remove(7));
+        assertNull(map.put(7, second));
+        assertSame(second, map.get(7));
+        assertEquals(1, map.size());
+
+        map.clear();
+        assertNull(map.get(7));
+        assertEquals(0, map.size());
+        assertThrows(IllegalArgumentException.class, () -> map.put(0, task(0)));
+    }
+
+    private static Task task(long id) {
+        return new Task(id, "Task " + id, Status.CREATED, LocalDate.of(2025, 7, 1), null, null, null);
+    }
+}
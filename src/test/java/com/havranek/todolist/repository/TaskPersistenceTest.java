@@ -0,0 +1,158 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.exceptions.PersistenceFailed;
+import com.havranek.todolist.exceptions.VersionConflict;
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class TaskPersistenceTest {
+
+    @TempDir
+    Path dir;
+
+    private TaskPersistence persistence;
+
+    @AfterEach
+    public void closePersistence() throws IOException {
+        persistence.close();
+    }
+
+    @Test
+    public void restartReplaysWriteAheadLog() throws IOException {
+        DbInMemory repository = open();
+        Task first = repository.save(newTask("First", Status.CREATED, null));
+        Task second = repository.save(newTask("Second", Status.CREATED, null));
+        repository.save(newTask("Third", Status.CREATED, null));
+
+        Task finished = newTask("Second done", Status.COMPLETED, LocalDate.of(2025, 7, 20));
+        finished.setId(second.getId());
+        repository.save(finished);
+        repository.deleteById(first.getId());
+
+        repository = reopen();
+
+        assertEquals(2, repository.count());
+        assertTrue(repository.findById(first.getId()).isEmpty());
+        Task recovered = repository.findById(second.getId()).orElseThrow();
+        assertEquals("Second done", recovered.getTitle());
+        assertNull(recovered.getDescription());
+        assertEquals(1, repository.findSolvedTaskPerDay(LocalDate.of(2025, 7, 20)));
+        assertEquals(4, repository.save(newTask("Fourth", Status.CREATED, null)).getId());
+    }
+
+    @Test
+    public void restartLoadsSnapshotAndNewerLog() throws IOException {
+        DbInMemory repository = open();
+        Task first = repository.save(newTask("First", Status.COMPLETED, LocalDate.of(2025, 7, 10)));
+        repository.save(newTask("Second", Status.CREATED, null));
+        repository.snapshot();
+        repository.save(newTask("Third", Status.CREATED, null));
+        repository.deleteById(first.getId());
+
+        repository = reopen();
+
+        assertEquals(2, repository.count());
+        assertTrue(repository.findById(first.getId()).isEmpty());
+        assertEquals(0, repository.findSolvedTaskPerDay(LocalDate.of(2025, 7, 10)));
+        assertEquals("Third", repository.findById(3).orElseThrow().getTitle());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.filter(path -> path.getFileName().toString().startsWith("snapshot-")).count());
+        }
+    }
+
+    @Test
+    public void restartKeepsTaskVersions() throws IOException {
+        DbInMemory repository = open();
+        Task first = repository.save(newTask("First", Status.CREATED, null));
+        repository.save(newTask("Second", Status.CREATED, null));
+        Task changed = newTask("First changed", Status.CREATED, null);
+        changed.setId(first.getId());
+        changed.setVersion(first.getVersion());
+        repository.save(changed);
+        repository.snapshot();
+        changed = newTask("First changed again", Status.CREATED, null);
+        changed.setId(first.getId());
+        repository.save(changed);
+
+        repository = reopen();
+
+        assertEquals(3, repository.findById(first.getId()).orElseThrow().getVersion());
+        assertEquals(1, repository.findById(2).orElseThrow().getVersion());
+        Task stale = newTask("Stale", Status.CREATED, null);
+        stale.setId(first.getId());
+        stale.setVersion(2);
+        DbInMemory recovered = repository;
+        assertThrows(VersionConflict.class, () -> recovered.save(stale));
+    }
+
+    @Test
+    public void restartIgnoresTornLogTail() throws IOException {
+        DbInMemory repository = open();
+        repository.save(newTask("First", Status.CREATED, null));
+        repository.save(newTask("Second", Status.CREATED, null));
+        persistence.close();
+
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.filter(path -> path.getFileName().toString().startsWith("wal-"))
+                    .max(Path::compareTo)
+                    .orElseThrow();
+        }
+        Files.write(segment, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        persistence = new TaskPersistence(dir, false, 0);
+        repository = new DbInMemory(new HeapTaskStore(), Optional.of(persistence));
+
+        assertEquals(2, repository.count());
+        assertEquals("Second", repository.findById(2).orElseThrow().getTitle());
+    }
+
+    @Test
+    public void failedLogWriteMakesStoreReadOnly() throws IOException {
+        Path full = Path.of("/dev/full");
+        assumeTrue(Files.isWritable(full));
+        DbInMemory repository = open();
+        Task kept = repository.save(newTask("Kept", Status.CREATED, null));
+        // the next segment writes fail with no space left on the device
+        Files.createSymbolicLink(dir.resolve(String.format("wal-%016d.log", 2)), full);
+        persistence.startSnapshot();
+
+        assertThrows(PersistenceFailed.class, () -> repository.save(newTask("Lost", Status.CREATED, null)));
+        long count = repository.count();
+        assertThrows(PersistenceFailed.class, () -> repository.save(newTask("Refused", Status.CREATED, null)));
+        assertThrows(PersistenceFailed.class, () -> repository.deleteById(kept.getId()));
+        assertEquals(count, repository.count());
+        assertEquals("Kept", repository.findById(kept.getId()).orElseThrow().getTitle());
+    }
+
+    private DbInMemory open() throws IOException {
+        persistence = new TaskPersistence(dir, false, 0);
+        return new DbInMemory(new HeapTaskStore(), Optional.of(persistence));
+    }
+
+    private DbInMemory reopen() throws IOException {
+        persistence.close();
+        return open();
+    }
+
+    private Task newTask(String title, Status status, LocalDate finished) {
+        return new Task(-1, title, status, LocalDate.of(2025, 7, 1), LocalDate.of(2025, 8, 1), finished, null);
+    }
+}
@@ -0,0 +1,222 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.exceptions.ReadOnlyReplica;
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskReplicationTest {
+
+    private DbInMemory leaderDb;
+    private DbInMemory followerDb;
+    private TaskReplication leader;
+    private TaskReplication follower;
+    private ReplicationBatch position;
+    private Runnable duringStream;
+
+    @BeforeEach
+    public void setupNodes() {
+        leaderDb = new DbInMemory(new HeapTaskStore() {
+            @Override
+            public Stream<Task> streamAfter(long afterId) {
+                Runnable writes = duringStream;
+                duringStream = null;
+                if (writes != null) {
+                    writes.run();
+                }
+                return super.streamAfter(afterId);
+            }
+        }, Optional.empty(), 16);
+        leaderDb.clearDb();
+        leader = new TaskReplication(leaderDb, 4);
+        // the follower starts with its own seed data, the first copy replaces it
+        followerDb = new DbInMemory(new HeapTaskStore(), Optional.empty(), 16);
+        follower = new TaskReplication(followerDb, 4);
+        follower.startFollowing();
+    }
+
+    @Test
+    public void followerCopiesTheLeaderThenAppliesItsWrites() throws IOException {
+        Task first = leaderDb.save(newTask("First", Status.CREATED));
+        Task second = leaderDb.save(newTask("Second", Status.IN_PROCESS));
+
+        ReplicationBatch copy = replicate();
+        assertTrue(copy.snapshot());
+        assertEquals(leaderDb.modificationCount(), copy.sequence());
+        assertEquals(0, copy.lag());
+        assertSameTasks();
+
+        Task changed = newTask("First done", Status.COMPLETED);
+        changed.setId(first.getId());
+        changed.setVersion(first.getVersion());
+        leaderDb.save(changed);
+        leaderDb.deleteById(second.getId());
+        leaderDb.save(newTask("Third", Status.CREATED));
+
+        ReplicationBatch batch = replicate();
+        assertFalse(batch.snapshot());
+        assertEquals(leaderDb.modificationCount(), batch.sequence());
+        assertSameTasks();
+        assertEquals(2, followerDb.findById(first.getId()).orElseThrow().getVersion());
+        assertTrue(followerDb.findById(second.getId()).isEmpty());
+        assertEquals(1, followerDb.countByStatus(Status.COMPLETED));
+    }
+
+    @Test
+    public void batchesAreBoundedAndReportTheLag() throws IOException {
+        replicate();
+        for (int i = 0; i < 6; i++) {
+            leaderDb.save(newTask("Task " + i, Status.CREATED));
+        }
+
+        ReplicationBatch batch = replicate();
+        assertFalse(batch.snapshot());
+        assertEquals(2, batch.lag());
+        assertEquals(4, followerDb.count());
+
+        batch = replicate();
+        assertEquals(0, batch.lag());
+        assertSameTasks();
+
+        batch = replicate();
+        assertEquals(leaderDb.modificationCount(), batch.sequence());
+        assertSameTasks();
+    }
+
+    @Test
+    public void clearIsReplicatedInOrder() throws IOException {
+        replicate();
+        leaderDb.save(newTask("Before clear", Status.CREATED));
+        leaderDb.clearDb();
+        leaderDb.save(newTask("After clear", Status.FAILED));
+
+        assertFalse(replicate().snapshot());
+        assertSameTasks();
+        assertEquals(1, followerDb.count());
+        assertEquals(1, followerDb.findAll().get(0).getId());
+    }
+
+    @Test
+    public void followerBehindTheChangeFeedGetsFullCopy() throws IOException {
+        replicate();
+        for (int i = 0; i < 20; i++) {
+            leaderDb.save(newTask("Task " + i, Status.CREATED));
+        }
+
+        ReplicationBatch batch = replicate();
+        assertTrue(batch.snapshot());
+        assertEquals(0, batch.lag());
+        assertSameTasks();
+    }
+
+    @Test
+    public void sequenceOfAnotherLeaderRunGetsFullCopy() throws IOException {
+        leaderDb.save(newTask("Task", Status.CREATED));
+        position = new ReplicationBatch("earlier-run", leaderDb.modificationCount(), 0, false);
+
+        assertTrue(replicate().snapshot());
+        assertSameTasks();
+    }
+
+    @Test
+    public void copyStreamedDuringWritesCatchesUpFromItsSequence() throws IOException {
+        Task first = leaderDb.save(newTask("First", Status.CREATED));
+        Task second = leaderDb.save(newTask("Second", Status.CREATED));
+        duringStream = () -> {
+            Task changed = newTask("First done", Status.COMPLETED);
+            changed.setId(first.getId());
+            changed.setVersion(first.getVersion());
+            leaderDb.save(changed);
+            leaderDb.deleteById(second.getId());
+            leaderDb.save(newTask("Third", Status.CREATED));
+        };
+
+        ReplicationBatch copy = replicate();
+        assertTrue(copy.snapshot());
+        assertEquals(3, copy.lag());
+
+        ReplicationBatch batch = replicate();
+        assertFalse(batch.snapshot());
+        assertEquals(0, batch.lag());
+        assertSameTasks();
+    }
+
+    @Test
+    public void copyBrokenOffHalfwayNeedsNewCopy() throws IOException {
+        for (int i = 0; i < 10; i++) {
+            leaderDb.save(newTask("Task " + i, Status.CREATED));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        leader.writeBatch(null, 0, out);
+        byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() - 3);
+
+        assertThrows(EOFException.class, () -> follower.applyBatch(new ByteArrayInputStream(truncated)));
+        assertTrue(follower.copyBrokenOff());
+
+        assertTrue(replicate().snapshot());
+        assertFalse(follower.copyBrokenOff());
+        assertSameTasks();
+    }
+
+    @Test
+    public void truncatedBatchAppliesNothing() throws IOException {
+        replicate();
+        leaderDb.save(newTask("Task", Status.CREATED));
+        long before = followerDb.modificationCount();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        leader.writeBatch(position.leaderInstance(), position.sequence(), out);
+        byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() - 3);
+
+        assertThrows(EOFException.class, () -> follower.applyBatch(new ByteArrayInputStream(truncated)));
+        assertEquals(before, followerDb.modificationCount());
+    }
+
+    @Test
+    public void followerRejectsOwnWrites() throws IOException {
+        replicate();
+        assertThrows(ReadOnlyReplica.class, () -> followerDb.save(newTask("Local", Status.CREATED)));
+        assertThrows(ReadOnlyReplica.class, () -> followerDb.deleteById(1));
+        assertThrows(ReadOnlyReplica.class, followerDb::clearDb);
+    }
+
+    private ReplicationBatch replicate() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        leader.writeBatch(position == null ? null : position.leaderInstance(),
+                position == null ? 0 : position.sequence(), out);
+        position = follower.applyBatch(new ByteArrayInputStream(out.toByteArray()));
+        return position;
+    }
+
+    private void assertSameTasks() {
+        assertEquals(describe(leaderDb.findAll()), describe(followerDb.findAll()));
+        assertEquals(leaderDb.count(), followerDb.count());
+    }
+
+    private static List<String> describe(List<Task> tasks) {
+        return tasks.stream()
+                .map(task -> task.getId() + " " + task.getTitle() + " " + task.getStatus() + " v" + task.getVersion())
+                .toList();
+    }
+
+    private static Task newTask(String title, Status status) {
+        return new Task(-1, title, status, LocalDate.of(2025, 7, 1), LocalDate.of(2025, 8, 1),
+                status == Status.COMPLETED ? LocalDate.of(2025, 7, 20) : null, null);
+    }
+}
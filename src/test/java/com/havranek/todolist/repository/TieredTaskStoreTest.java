@@ -0,0 +1,213 @@
+package com.havranek.todolist.repository;
+
+import com.havranek.todolist.model.entity.Status;
+import com.havranek.todolist.model.entity.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TieredTaskStoreTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 9, 1);
+
+    @TempDir
+    Path dir;
+
+    private final MutableClock clock = new MutableClock(TODAY);
+    private TieredTaskStore store;
+
+    @AfterEach
+    public void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    public void oldFinishedTasksGoToDiskAndReadBack() throws IOException {
+        store = new TieredTaskStore(new HeapTaskStore(), dir, 30, 10, clock);
+        store.put(StoredTask.of(finished(1, TODAY.minusDays(60)), 1, 3));
+        store.put(finished(2, TODAY.minusDays(5)));
+        store.put(open(3));
+
+        assertEquals(1, store.coldCount());
+        Task cold = store.get(1);
+        assertEquals("Task 1", cold.getTitle());
+        assertEquals(Status.COMPLETED, cold.getStatus());
+        assertEquals(TODAY.minusDays(60), cold.getFinished());
+        assertEquals(3, store.version(1));
+        assertTrue(store.contains(1));
+        assertEquals(3, store.lastId());
+        assertEquals(List.of(1L, 2L, 3L), ids(store.streamAfter(0)));
+    }
+
+    @Test
+    public void passingTimeMovesFinishedTasksToDisk() throws IOException {
+        store = new TieredTaskStore(new HeapTaskStore(), dir, 30, 10, clock);
+        for (long id = 1; id <= 6; id++) {
+            store.put(id % 2 == 0 ? finished(id, TODAY.minusDays(id)) : open(id));
+        }
+        assertEquals(0, store.moveColdTasks());
+
+        clock.set(TODAY.plusDays(31));
+        assertEquals(3, store.moveColdTasks());
+        assertEquals(3, store.coldCount());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), ids(store.streamAfter(0)));
+        assertEquals(List.of(4L, 5L, 6L), ids(store.streamAfter(3)));
+    }
+
+    @Test
+    public void reopenedTaskMovesBackToMemory() throws IOException {
+        store = new TieredTaskStore(new HeapTaskStore(), dir, 30, 0, clock);
+        store.put(finished(1, TODAY.minusDays(60)));
+        Task reopened = open(1);
+        reopened.setTitle("Reopened");
+
+        Task previous = store.put(reopened);
+
+        assertEquals(Status.COMPLETED, previous.getStatus());
+        assertEquals(0, store.coldCount());
+        assertEquals("Reopened", store.get(1).getTitle());
+        assertEquals(List.of(1L), ids(store.streamAfter(0)));
+    }
+
+    @Test
+    public void openStreamSeesTasksMovingBetweenTiers() throws IOException {
+        store = new TieredTaskStore(new HeapTaskStore(), dir, 30, 0, clock);
+        store.put(finished(1, TODAY.minusDays(60)));
+        for (long id = 2; id <= 9; id++) {
+            store.put(finished(id, TODAY.minusDays(20)));
+        }
+        store.put(finished(10, TODAY.minusDays(60)));
+        store.put(open(11));
+
+        Iterator<Task> tasks = store.streamAfter(0).iterator();
+        assertEquals(1, tasks.next().getId());
+        // 2-9 go to disk behind the cold ids the stream already reached, 10 comes back to memory
+        clock.set(TODAY.plusDays(15));
+        assertEquals(8, store.moveColdTasks());
+        Task reopened = open(10);
+        reopened.setTitle("Reopened");
+        store.put(reopened);
+
+        List<Long> rest = new ArrayList<>();
+        tasks.forEachRemaining(task -> rest.add(task.getId()));
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L), rest);
+        assertEquals(9, store.coldCount());
+    }
+
+    @Test
+    public void removeAndClearCoverBothTiers() throws IOException {
+        store = new TieredTaskStore(new HeapTaskStore(), dir, 30, 10, clock);
+        store.put(finished(1, TODAY.minusDays(60)));
+        store.put(open(2));
+
+        assertEquals("Task 1", store.remove(1).getTitle());
+        assertNull(store.remove(1));
+        assertFalse(store.contains(1));
+        assertEquals(0, store.version(1));
+
+        store.put(finished(3, TODAY.minusDays(60)));
+        store.clear();
+        assertEquals(0, store.streamAfter(0).count());
+        assertEquals(0, store.lastId());
+    }
+
+    @Test
+    public void compactionKeepsLiveTasksAndDropsSegments() throws IOException {
+        store = new TieredTaskStore(new HeapTaskStore(), dir, 30, 10, clock, 4096);
+        for (int round = 1; round <= 200; round++) {
+            for (long id = 1; id <= 20; id++) {
+                Task task = finished(id, TODAY.minusDays(60));
+                task.setDescription("Round " + round);
+                store.put(task);
+            }
+        }
+        // the saves only queue compactions on the mover thread, this waits for a running one
+        store.compact();
+
+        List<Task> tasks = store.streamAfter(0).toList();
+        assertEquals(20, tasks.size());
+        tasks.forEach(task -> assertEquals("Round 200", task.getDescription()));
+        try (Stream<Path> segments = Files.list(dir)) {
+            // 200 rounds of ~20 records would take far more than a handful of 4 KB segments
+            assertTrue(segments.count() < 10);
+        }
+    }
+
+    @Test
+    public void repositoryWorksOverTieredStore() throws IOException {
+        store = new TieredTaskStore(new HeapTaskStore(), dir, 30, 10, clock);
+        DbInMemory db = new DbInMemory(store, Optional.empty());
+        db.clearDb();
+        Task saved = db.save(finished(0, TODAY.minusDays(60)));
+        db.save(open(0));
+
+        assertEquals(1, store.coldCount());
+        Task update = new Task(saved.getId(), "Renamed", Status.COMPLETED, saved.getCreated(),
+                saved.getDeadline(), saved.getFinished(), saved.getDescription(), saved.getVersion());
+        assertEquals(1, db.updateExisting(List.of(update)).size());
+        assertEquals("Renamed", db.findById(saved.getId()).orElseThrow().getTitle());
+        assertEquals(2, db.findById(saved.getId()).orElseThrow().getVersion());
+        assertEquals(2, db.count());
+    }
+
+    private static List<Long> ids(Stream<Task> tasks) {
+        return tasks.map(Task::getId).toList();
+    }
+
+    private static Task open(long id) {
+        return new Task(id, "Task " + id, Status.CREATED, TODAY.minusDays(90), TODAY.plusDays(10), null, "Description");
+    }
+
+    private static Task finished(long id, LocalDate finished) {
+        return new Task(id, "Task " + id, Status.COMPLETED, TODAY.minusDays(90), TODAY.plusDays(10), finished, "Description");
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(LocalDate date) {
+            set(date);
+        }
+
+        void set(LocalDate date) {
+            instant = date.atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}